@@ -0,0 +1,89 @@
+package com.placideh.rateLimiter.security;
+
+import com.placideh.rateLimiter.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT tokens/sec on one thread (= per core), before and after the cached key and parser
+ *
+ * 1. perRequestParsers: what JwtAuthenticationFilter cost before - validateToken and
+ *    getUsernameFromToken each derived the key, built a parser and parsed the token
+ * 2. parseAndValidate: one parse with the key and parser built at startup
+ * 3. generateToken: login / register path, signs with the cached key
+ *
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="JwtTokenProviderBenchmark"
+ * (add -t N to see how the cached parser scales across cores)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class JwtTokenProviderBenchmark {
+
+    // HS512 needs at least 64 bytes of key material
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret";
+
+    private JwtTokenProvider tokenProvider;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationMs", TimeUnit.HOURS.toMillis(1));
+        tokenProvider.init();
+
+        user = new User();
+        user.setId("benchmark-user");
+        user.setUsername("benchmark");
+        user.setRole("COMPANY");
+        user.setTierId("benchmark-tier");
+        token = tokenProvider.generateToken(user);
+    }
+
+    @Benchmark
+    public String perRequestParsers() {
+        Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token);
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    @Benchmark
+    public Optional<Claims> parseAndValidate() {
+        return tokenProvider.parseAndValidate(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenProvider.generateToken(user);
+    }
+}
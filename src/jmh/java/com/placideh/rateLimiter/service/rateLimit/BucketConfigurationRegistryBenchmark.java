@@ -0,0 +1,70 @@
+package com.placideh.rateLimiter.service.rateLimit;
+
+import com.placideh.rateLimiter.model.Tier;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the tier bucket configurations
+ *
+ * 1. build: what every request did before the registry - a new window and monthly
+ *    BucketConfiguration (and Bandwidth) per call
+ * 2. lookup: BucketConfigurationRegistry.forTier on a tier that is already built
+ *
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="BucketConfigurationRegistryBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BucketConfigurationRegistryBenchmark {
+
+    private Tier tier;
+    private BucketConfigurationRegistry registry;
+
+    @Setup
+    public void setUp() {
+        tier = new Tier();
+        tier.setId("benchmark-tier");
+        tier.setName("BENCHMARK");
+        tier.setRequestsPerMinute(100);
+        tier.setRequestsPerMonth(100_000L);
+
+        // forTier/rebuild do not touch the system configuration, so no SystemConfigCache is needed
+        registry = new BucketConfigurationRegistry();
+        registry.rebuild(tier);
+    }
+
+    @Benchmark
+    public void build(Blackhole blackhole) {
+        blackhole.consume(BucketConfiguration.builder()
+                .addLimit(Bandwidth.simple(tier.getRequestsPerMinute(), Duration.ofMinutes(1)))
+                .build());
+        blackhole.consume(BucketConfiguration.builder()
+                .addLimit(Bandwidth.simple(tier.getRequestsPerMonth(), Duration.ofDays(30)))
+                .build());
+    }
+
+    @Benchmark
+    public void lookup(Blackhole blackhole) {
+        BucketConfigurationRegistry.TierConfigurations configurations = registry.forTier(tier);
+        blackhole.consume(configurations.getWindow());
+        blackhole.consume(configurations.getMonthly());
+    }
+}
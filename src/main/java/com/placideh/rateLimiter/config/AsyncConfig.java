@@ -0,0 +1,98 @@
+package com.placideh.rateLimiter.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Async Configuration
+ * Executors used by the non-blocking notification path
+ */
+@Slf4j
+@Configuration
+public class AsyncConfig {
+
+    @Value("${async.notification.core-pool-size:16}")
+    private int notificationCorePoolSize;
+
+    @Value("${async.notification.max-pool-size:64}")
+    private int notificationMaxPoolSize;
+
+    @Value("${async.notification.queue-capacity:1000}")
+    private int notificationQueueCapacity;
+
+    // 0 = half of the available cores, so logins can never take every core
+    @Value("${security.login.threads:0}")
+    private int loginThreads;
+
+    @Value("${security.login.queue-capacity:100}")
+    private int loginQueueCapacity;
+
+    @Value("${async.batch.core-pool-size:32}")
+    private int batchCorePoolSize;
+
+    @Value("${async.batch.max-pool-size:128}")
+    private int batchMaxPoolSize;
+
+    @Value("${async.batch.queue-capacity:2000}")
+    private int batchQueueCapacity;
+
+    // runs the blocking part (DB write) of a notification once the async rate limit decision arrived.
+    // Tasks are submitted from Redis (Netty event loop) callbacks: a full pool rejects (503) instead of
+    // running the task on the caller, which would stall all Redis I/O of the node
+    @Bean(name = "notificationExecutor")
+    public ThreadPoolTaskExecutor notificationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(notificationCorePoolSize);
+        executor.setMaxPoolSize(notificationMaxPoolSize);
+        executor.setQueueCapacity(notificationQueueCapacity);
+        executor.setThreadNamePrefix("notification-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+
+        log.info("Notification executor created: core={}, max={}, queue={}",
+                notificationCorePoolSize, notificationMaxPoolSize, notificationQueueCapacity);
+        return executor;
+    }
+
+    // delivers the admitted items of a batch in parallel; per-batch concurrency is capped by NotificationService.
+    // A rejected item fails (and is refunded) - CallerRunsPolicy silently drops it after shutdown
+    @Bean(name = "batchDispatchExecutor")
+    public ThreadPoolTaskExecutor batchDispatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(batchCorePoolSize);
+        executor.setMaxPoolSize(batchMaxPoolSize);
+        executor.setQueueCapacity(batchQueueCapacity);
+        executor.setThreadNamePrefix("batch-dispatch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+
+        log.info("Batch dispatch executor created: core={}, max={}, queue={}",
+                batchCorePoolSize, batchMaxPoolSize, batchQueueCapacity);
+        return executor;
+    }
+
+    // bulkhead for password hashing (login/register); a full queue is rejected, never run on the caller
+    @Bean(name = "loginExecutor")
+    public ThreadPoolTaskExecutor loginExecutor() {
+        int threads = loginThreads > 0 ? loginThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(loginQueueCapacity);
+        executor.setThreadNamePrefix("login-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+
+        log.info("Login executor created: threads={}, queue={}", threads, loginQueueCapacity);
+        return executor;
+    }
+}
@@ -1,6 +1,7 @@
 package com.placideh.rateLimiter.config;
 
 import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.github.bucket4j.distributed.proxy.AsyncProxyManager;
 import io.github.bucket4j.distributed.proxy.ProxyManager;
 import io.github.bucket4j.redis.lettuce.cas.LettuceBasedProxyManager;
 import io.lettuce.core.RedisClient;
@@ -91,4 +92,12 @@ public class Bucket4jConfig {
             throw new RuntimeException("ProxyManager creation failed", e);
         }
     }
-}
\ No newline at end of file
+
+
+    // same Redis state as proxyManager, but driven through Lettuce's async API
+    @Bean
+    public AsyncProxyManager<String> asyncProxyManager(ProxyManager<String> proxyManager) {
+        log.info("Creating Bucket4j AsyncProxyManager...");
+        return proxyManager.asAsync();
+    }
+}
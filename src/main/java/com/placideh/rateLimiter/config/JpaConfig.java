@@ -0,0 +1,32 @@
+package com.placideh.rateLimiter.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * JPA Configuration
+ * Turns on JDBC batching so saveAll() sends one batched INSERT per batch size
+ * instead of one round trip per entity
+ *
+ * Entities with application-generated ids (UUID) are batched; IDENTITY ids would disable it.
+ */
+@Slf4j
+@Configuration
+public class JpaConfig {
+
+    @Value("${jpa.jdbc.batch-size:50}")
+    private int jdbcBatchSize;
+
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchingCustomizer() {
+        return properties -> {
+            properties.put("hibernate.jdbc.batch_size", jdbcBatchSize);
+            properties.put("hibernate.order_inserts", true);
+            properties.put("hibernate.order_updates", true);
+            log.info("Hibernate JDBC batching enabled: batch_size={}", jdbcBatchSize);
+        };
+    }
+}
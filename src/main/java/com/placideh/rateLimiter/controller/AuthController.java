@@ -30,7 +30,8 @@ public class AuthController {
             @ApiResponse(responseCode = "200", description = "Successfully authenticated",
                     content = @Content(schema = @Schema(implementation = AuthResponse.class))),
             @ApiResponse(responseCode = "401", description = "Invalid credentials"),
-            @ApiResponse(responseCode = "400", description = "Invalid request body")
+            @ApiResponse(responseCode = "400", description = "Invalid request body"),
+            @ApiResponse(responseCode = "503", description = "Too many logins in progress - retry after the Retry-After delay")
     })
     @PostMapping("/login")
     public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
@@ -39,7 +40,8 @@ public class AuthController {
     }
 
 
-    @Operation(summary = "Register Company", description = "Register a new company and create client account with API key")
+    @Operation(summary = "Register Company", description = "Register a new company and create client account with API key. " +
+            "The API key is only returned in this response - it is stored as a hash and cannot be retrieved later")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully registered",
                     content = @Content(schema = @Schema(implementation = UserResponse.class))),
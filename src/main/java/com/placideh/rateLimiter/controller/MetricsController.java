@@ -0,0 +1,242 @@
+package com.placideh.rateLimiter.controller;
+
+import com.placideh.rateLimiter.security.ApiKeyFailureLimiter;
+import com.placideh.rateLimiter.security.InstrumentedPasswordEncoder;
+import com.placideh.rateLimiter.security.LoginBulkhead;
+import com.placideh.rateLimiter.service.cache.AccountStatusCache;
+import com.placideh.rateLimiter.service.cache.ApiKeyBloomFilter;
+import com.placideh.rateLimiter.service.cache.ApiKeyCache;
+import com.placideh.rateLimiter.service.cache.InvalidApiKeyCache;
+import com.placideh.rateLimiter.service.cache.SystemConfigCache;
+import com.placideh.rateLimiter.service.notification.NotificationLogWriter;
+import com.placideh.rateLimiter.service.rateLimit.RateLimitStrategyMetrics;
+import com.placideh.rateLimiter.service.rateLimit.SoftThrottleScheduler;
+import com.placideh.rateLimiter.service.rateLimit.SystemTokenLeaseManager;
+import com.placideh.rateLimiter.service.usage.UsageTracker;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/metrics")
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Metrics (Admin)", description = "Internal counters for caches and rate limiting")
+@SecurityRequirement(name = "Bearer Authentication")
+public class MetricsController {
+
+    @Autowired
+    private ApiKeyCache apiKeyCache;
+
+    @Autowired
+    private ApiKeyBloomFilter apiKeyBloomFilter;
+
+    @Autowired
+    private InvalidApiKeyCache invalidApiKeyCache;
+
+    @Autowired
+    private ApiKeyFailureLimiter apiKeyFailureLimiter;
+
+    @Autowired
+    private SystemTokenLeaseManager systemTokenLeaseManager;
+
+    @Autowired
+    private SoftThrottleScheduler softThrottleScheduler;
+
+    @Autowired
+    private RateLimitStrategyMetrics rateLimitStrategyMetrics;
+
+    @Autowired
+    private NotificationLogWriter notificationLogWriter;
+
+    @Autowired
+    private UsageTracker usageTracker;
+
+    @Autowired
+    private SystemConfigCache systemConfigCache;
+
+    @Autowired
+    private AccountStatusCache accountStatusCache;
+
+    @Autowired
+    private InstrumentedPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private LoginBulkhead loginBulkhead;
+
+    @Operation(summary = "Get API Key Cache Metrics",
+            description = "Hit, miss and eviction counters of the in-memory API key cache")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved cache metrics",
+                    content = @Content(
+                            schema = @Schema(example = "{\"size\": 42, \"hits\": 1200, \"misses\": 42, \"evictions\": 3, \"hitRatio\": 0.966}")
+                    )),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Admin access required")
+    })
+    @GetMapping("/api-key-cache")
+    public ResponseEntity<Map<String, Object>> getApiKeyCacheMetrics() {
+        return ResponseEntity.ok(apiKeyCache.getStats());
+    }
+
+    @Operation(summary = "Get API Key Filter Metrics",
+            description = "Bloom filter of valid API key hashes that rejects unknown keys before any lookup")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved API key filter metrics",
+                    content = @Content(
+                            schema = @Schema(example = "{\"ready\": true, \"keys\": 42, \"bits\": 1437760, \"hashFunctions\": 10, \"checks\": 9000, \"rejected\": 1200, \"falsePositives\": 1, \"rebuilds\": 3}")
+                    )),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Admin access required")
+    })
+    @GetMapping("/api-key-filter")
+    public ResponseEntity<Map<String, Object>> getApiKeyFilterMetrics() {
+        return ResponseEntity.ok(apiKeyBloomFilter.getStats());
+    }
+
+    @Operation(summary = "Get Invalid API Key Metrics",
+            description = "Negative cache of unknown API keys and the per-address failure limiter")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved invalid API key metrics",
+                    content = @Content(
+                            schema = @Schema(example = "{\"negativeCache\": {\"size\": 230, \"hits\": 4100, \"misses\": 230}, \"failureLimiter\": {\"trackedAddresses\": 12, \"blockedAddresses\": 2, \"failures\": 4400, \"blocks\": 2, \"blockedRequests\": 39000}}")
+                    )),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Admin access required")
+    })
+    @GetMapping("/invalid-api-keys")
+    public ResponseEntity<Map<String, Object>> getInvalidApiKeyMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("negativeCache", invalidApiKeyCache.getStats());
+        metrics.put("failureLimiter", apiKeyFailureLimiter.getStats());
+        return ResponseEntity.ok(metrics);
+    }
+
+    @Operation(summary = "Get System Token Lease Metrics",
+            description = "Local system-wide token lease counters (rate-limit.system.mode=LEASED)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved lease metrics",
+                    content = @Content(
+                            schema = @Schema(example = "{\"leaseSize\": 50, \"localTokens\": 31, \"leasesAcquired\": 120, \"redisOperations\": 124}")
+                    )),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Admin access required")
+    })
+    @GetMapping("/system-leases")
+    public ResponseEntity<Map<String, Object>> getSystemLeaseMetrics() {
+        return ResponseEntity.ok(systemTokenLeaseManager.getStats());
+    }
+
+    @Operation(summary = "Get Soft Throttle Metrics",
+            description = "Requests currently parked by soft throttling and how they were released")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved soft throttle metrics",
+                    content = @Content(
+                            schema = @Schema(example = "{\"parked\": 12, \"maxParked\": 10000, \"parkedTotal\": 940, \"releasedAllowed\": 610, \"releasedRejected\": 318, \"overflowRejected\": 0}")
+                    )),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Admin access required")
+    })
+    @GetMapping("/soft-throttle")
+    public ResponseEntity<Map<String, Object>> getSoftThrottleMetrics() {
+        return ResponseEntity.ok(softThrottleScheduler.getStats());
+    }
+
+    @Operation(summary = "Compare Rate Limit Strategies",
+            description = "Redis calls per check for every strategy and, for the given client, the Redis bytes held per strategy")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved strategy comparison",
+                    content = @Content(
+                            schema = @Schema(example = "{\"FIXED_WINDOW\": {\"checks\": 500, \"redisCalls\": 500, \"redisCallsPerCheck\": 1.0, \"bytesPerClient\": 112}}")
+                    )),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Admin access required")
+    })
+    @GetMapping("/strategies")
+    public ResponseEntity<Map<String, Object>> compareStrategies(
+            @Parameter(description = "Client (user) id whose Redis state should be measured")
+            @RequestParam(required = false) String clientId) {
+        return ResponseEntity.ok(rateLimitStrategyMetrics.compare(clientId));
+    }
+
+    @Operation(summary = "Get Notification Log Writer Metrics",
+            description = "Write-behind queue depth and batched insert counters of the notification log writer")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved log writer metrics",
+                    content = @Content(
+                            schema = @Schema(example = "{\"queued\": 37, \"queueCapacity\": 10000, \"enqueued\": 52000, \"written\": 51963, \"batches\": 410, \"callerWrites\": 0, \"failed\": 0}")
+                    )),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Admin access required")
+    })
+    @GetMapping("/notification-log-writer")
+    public ResponseEntity<Map<String, Object>> getNotificationLogWriterMetrics() {
+        return ResponseEntity.ok(notificationLogWriter.getStats());
+    }
+
+    @Operation(summary = "Get Usage Tracker Metrics",
+            description = "Aggregated monthly usage counters and their periodic flushes to monthly_usage")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved usage tracker metrics",
+                    content = @Content(
+                            schema = @Schema(example = "{\"tracker\": \"MEMORY\", \"trackedClientMonths\": 240, \"flushes\": 720, \"rowsUpserted\": 15400, \"failedFlushes\": 0}")
+                    )),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Admin access required")
+    })
+    @GetMapping("/usage-tracker")
+    public ResponseEntity<Map<String, Object>> getUsageTrackerMetrics() {
+        return ResponseEntity.ok(usageTracker.getStats());
+    }
+
+    @Operation(summary = "Get System Config Cache Metrics",
+            description = "Reloads of the in-memory system config snapshot and the pub/sub invalidations that triggered them")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved system config cache metrics",
+                    content = @Content(
+                            schema = @Schema(example = "{\"size\": 3, \"reloads\": 14, \"failedReloads\": 0, \"invalidationsPublished\": 1, \"invalidationsReceived\": 2, \"lastReloadAtMillis\": 1760774400000}")
+                    )),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Admin access required")
+    })
+    @GetMapping("/system-config")
+    public ResponseEntity<Map<String, Object>> getSystemConfigCacheMetrics() {
+        return ResponseEntity.ok(systemConfigCache.getStats());
+    }
+
+    @Operation(summary = "Get Account Status Cache Metrics",
+            description = "Hit and miss counters of the account status cache checked for every JWT request")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved account status cache metrics",
+                    content = @Content(
+                            schema = @Schema(example = "{\"size\": 18, \"ttlSeconds\": 30, \"hits\": 5400, \"misses\": 180, \"hitRatio\": 0.968}")
+                    )),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Admin access required")
+    })
+    @GetMapping("/account-status-cache")
+    public ResponseEntity<Map<String, Object>> getAccountStatusCacheMetrics() {
+        return ResponseEntity.ok(accountStatusCache.getStats());
+    }
+
+    @Operation(summary = "Get Password Hashing Metrics",
+            description = "BCrypt cost and latency, and the login bulkhead that runs it")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved password hashing metrics",
+                    content = @Content(
+                            schema = @Schema(example = "{\"hashing\": {\"strength\": 12, \"matches\": {\"count\": 310, \"avgMs\": 241.7, \"maxMs\": 402.3}, \"upgradesRequested\": 4}, \"bulkhead\": {\"threads\": 4, \"active\": 2, \"queued\": 0, \"rejected\": 12, \"timedOut\": 0}}")
+                    )),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Admin access required")
+    })
+    @GetMapping("/password-hashing")
+    public ResponseEntity<Map<String, Object>> getPasswordHashingMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("hashing", passwordEncoder.getStats());
+        metrics.put("bulkhead", loginBulkhead.getStats());
+        return ResponseEntity.ok(metrics);
+    }
+}
@@ -5,8 +5,12 @@ import com.placideh.rateLimiter.dto.request.BatchNotificationRequest;
 import com.placideh.rateLimiter.dto.request.SendEmailRequest;
 import com.placideh.rateLimiter.dto.request.SendSmsRequest;
 import com.placideh.rateLimiter.dto.response.NotificationResponse;
+import com.placideh.rateLimiter.interceptor.RateLimitHeaders;
 import com.placideh.rateLimiter.model.User;
 import com.placideh.rateLimiter.service.NotificationService;
+import com.placideh.rateLimiter.service.RateLimiterService;
+import com.placideh.rateLimiter.service.rateLimit.RateLimitDecisionContext;
+import com.placideh.rateLimiter.service.rateLimit.RateLimitResult;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -17,11 +21,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @RestController
 @RequestMapping("/notifications")
@@ -33,25 +40,45 @@ public class NotificationController {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private RateLimiterService rateLimiterService;
+
+    @Autowired
+    @Qualifier("notificationExecutor")
+    private Executor notificationExecutor;
 
     @Operation(summary = "Send SMS", description = "Send an SMS notification. Rate limited based on client tier.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "SMS sent successfully",
                     content = @Content(schema = @Schema(implementation = NotificationResponse.class))),
-            @ApiResponse(responseCode = "429", description = "Rate limit exceeded"),
+            @ApiResponse(responseCode = "429", description = "Rate limit exceeded. SOFT tiers are retried once after " +
+                    "the soft delay; a request that still fails the retry is rejected here (allowed=false), it is not served"),
             @ApiResponse(responseCode = "401", description = "Invalid or missing API key"),
-            @ApiResponse(responseCode = "400", description = "Invalid request body")
+            @ApiResponse(responseCode = "400", description = "Invalid request body"),
+            @ApiResponse(responseCode = "503", description = "Server at capacity - retry after the Retry-After header")
     })
     @PostMapping("/sms")
-    public ResponseEntity<NotificationResponse> sendSms(
+    public CompletableFuture<ResponseEntity<NotificationResponse>> sendSms(
             @Valid @RequestBody SendSmsRequest request,
             HttpServletRequest httpRequest) {
 
         // get client from request attribute set from RateLimitInterceptor
         User client = (User) httpRequest.getAttribute("client");
 
+        // a SOFT throttled request was parked by the interceptor - the request thread is not held for the delay
+        CompletableFuture<RateLimitResult> softRetry = RateLimitDecisionContext.pending(httpRequest);
+
+        if (softRetry != null || rateLimiterService.isAsyncEnabled()) {
+            // the request thread is released while the rate limit check is in flight; the send runs on
+            // notificationExecutor, never on the Redis I/O thread that completes the check (full pool = 503)
+            return (softRetry != null ? softRetry : rateLimiterService.checkAllLimitsAsync(client))
+                    .thenApplyAsync(result -> ResponseEntity.ok()
+                            .headers(RateLimitHeaders.of(result))
+                            .body(notificationService.sendSms(client, request, result)), notificationExecutor);
+        }
+
         NotificationResponse response = notificationService.sendSms(client, request);
-        return ResponseEntity.ok(response);
+        return CompletableFuture.completedFuture(ResponseEntity.ok(response));
     }
 
 
@@ -59,38 +86,58 @@ public class NotificationController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Email sent successfully",
                     content = @Content(schema = @Schema(implementation = NotificationResponse.class))),
-            @ApiResponse(responseCode = "429", description = "Rate limit exceeded"),
+            @ApiResponse(responseCode = "429", description = "Rate limit exceeded. SOFT tiers are retried once after " +
+                    "the soft delay; a request that still fails the retry is rejected here (allowed=false), it is not served"),
             @ApiResponse(responseCode = "401", description = "Invalid or missing API key"),
-            @ApiResponse(responseCode = "400", description = "Invalid request body")
+            @ApiResponse(responseCode = "400", description = "Invalid request body"),
+            @ApiResponse(responseCode = "503", description = "Server at capacity - retry after the Retry-After header")
     })
     @PostMapping("/email")
-    public ResponseEntity<NotificationResponse> sendEmail(
+    public CompletableFuture<ResponseEntity<NotificationResponse>> sendEmail(
             @Valid @RequestBody SendEmailRequest request,
             HttpServletRequest httpRequest) {
 
         // get client from request attribute set from RateLimitInterceptor
         User client = (User) httpRequest.getAttribute("client");
 
+        CompletableFuture<RateLimitResult> softRetry = RateLimitDecisionContext.pending(httpRequest);
+
+        if (softRetry != null || rateLimiterService.isAsyncEnabled()) {
+            return (softRetry != null ? softRetry : rateLimiterService.checkAllLimitsAsync(client))
+                    .thenApplyAsync(result -> ResponseEntity.ok()
+                            .headers(RateLimitHeaders.of(result))
+                            .body(notificationService.sendEmail(client, request, result)), notificationExecutor);
+        }
+
         NotificationResponse response = notificationService.sendEmail(client, request);
-        return ResponseEntity.ok(response);
+        return CompletableFuture.completedFuture(ResponseEntity.ok(response));
     }
 
     @Operation(summary = "Send Batch Notifications", description = "Send multiple SMS/Email notifications in one request. Each notification counts against rate limit.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Batch processed (may contain partial failures)"),
-            @ApiResponse(responseCode = "429", description = "Rate limit exceeded"),
+            @ApiResponse(responseCode = "429", description = "Rate limit exceeded. SOFT tiers are retried once after " +
+                    "the soft delay; a request that still fails the retry is rejected here (allowed=false), it is not served"),
             @ApiResponse(responseCode = "401", description = "Invalid or missing API key"),
-            @ApiResponse(responseCode = "400", description = "Invalid request body")
+            @ApiResponse(responseCode = "400", description = "Invalid request body"),
+            @ApiResponse(responseCode = "503", description = "Server at capacity - retry after the Retry-After header")
     })
     @PostMapping("/batch")
-    public ResponseEntity<List<NotificationResponse>> sendBatch(
+    public CompletableFuture<ResponseEntity<List<NotificationResponse>>> sendBatch(
             @Valid @RequestBody BatchNotificationRequest request,
             HttpServletRequest httpRequest) {
 
         // get client from request attribute set from RateLimitInterceptor
         User client = (User) httpRequest.getAttribute("client");
 
+        CompletableFuture<RateLimitResult> softRetry = RateLimitDecisionContext.pending(httpRequest);
+        if (softRetry != null) {
+            // the retry's decision covers the first item, like the interceptor decision otherwise
+            return softRetry.thenApplyAsync(result -> ResponseEntity.ok(
+                    notificationService.sendBatch(client, request, result)), notificationExecutor);
+        }
+
         List<NotificationResponse> responses = notificationService.sendBatch(client, request);
-        return ResponseEntity.ok(responses);
+        return CompletableFuture.completedFuture(ResponseEntity.ok(responses));
     }
 }
@@ -2,6 +2,8 @@ package com.placideh.rateLimiter.controller;
 
 
 import com.placideh.rateLimiter.service.SystemConfigService;
+import com.placideh.rateLimiter.service.rateLimit.CompositeTokenBucketStrategy;
+import com.placideh.rateLimiter.util.Constants;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -57,9 +59,7 @@ public class SystemConfigController {
         String algorithm = systemConfigService.getCurrentAlgorithm();
         return ResponseEntity.ok(Map.of(
                 "algorithm", algorithm,
-                "description", algorithm.equals("TOKEN_BUCKET")
-                        ? "Token Bucket - Smooth rate limiting with token refill"
-                        : "Fixed Window - Simple window-based rate limiting"
+                "description", describeAlgorithm(algorithm)
         ));
     }
 
@@ -70,7 +70,7 @@ public class SystemConfigController {
                     content = @Content(
                             schema = @Schema(example = "{\"message\": \"Algorithm updated successfully\", \"algorithm\": \"FIXED_WINDOW\"}")
                     )),
-            @ApiResponse(responseCode = "400", description = "Invalid algorithm value. Must be TOKEN_BUCKET or FIXED_WINDOW"),
+            @ApiResponse(responseCode = "400", description = "Invalid algorithm value. Must be TOKEN_BUCKET, FIXED_WINDOW, SLIDING_WINDOW, GCRA or COMPOSITE_TOKEN_BUCKET"),
             @ApiResponse(responseCode = "401", description = "Unauthorized - Admin access required")
     })
     @io.swagger.v3.oas.annotations.parameters.RequestBody(
@@ -88,6 +88,16 @@ public class SystemConfigController {
                                     name = "Fixed Window",
                                     value = "{\"algorithm\": \"FIXED_WINDOW\"}",
                                     description = "Simple window-based rate limiting"
+                            ),
+                            @ExampleObject(
+                                    name = "Sliding Window",
+                                    value = "{\"algorithm\": \"SLIDING_WINDOW\"}",
+                                    description = "Rolling window without bursts at window edges"
+                            ),
+                            @ExampleObject(
+                                    name = "GCRA",
+                                    value = "{\"algorithm\": \"GCRA\"}",
+                                    description = "Token bucket behaviour with one timestamp per key"
                             )
                     }
             )
@@ -105,4 +115,21 @@ public class SystemConfigController {
                 "algorithm", algorithm
         ));
     }
+
+    private String describeAlgorithm(String algorithm) {
+        switch (algorithm) {
+            case Constants.TOKEN_BUCKET:
+                return "Token Bucket - Smooth rate limiting with token refill";
+            case Constants.FIXED_WINDOW:
+                return "Fixed Window - Simple window-based rate limiting";
+            case Constants.SLIDING_WINDOW:
+                return "Sliding Window - Rolling window estimated from the current and previous window counters";
+            case Constants.GCRA:
+                return "GCRA - Token bucket equivalent with one timestamp per key";
+            case CompositeTokenBucketStrategy.STRATEGY_NAME:
+                return "Composite Token Bucket - System, window and monthly buckets in one atomic check";
+            default:
+                return algorithm;
+        }
+    }
 }
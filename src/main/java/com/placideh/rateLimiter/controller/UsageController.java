@@ -5,6 +5,7 @@ import com.placideh.rateLimiter.model.User;
 import com.placideh.rateLimiter.repository.UserRepository;
 import com.placideh.rateLimiter.service.UsageService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -13,6 +14,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -26,6 +28,8 @@ import java.util.List;
 @SecurityRequirement(name = "Bearer Authentication")
 public class UsageController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private UsageService usageService;
 
@@ -88,16 +92,25 @@ public class UsageController {
     }
 
     @Operation(summary = "Get All Clients Usage (Admin)",
-            description = "Retrieve current month usage for all clients. Admin only.")
+            description = "Retrieve current month usage for all clients, paged and sorted. Admin only.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully retrieved all usage",
-                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = UsageResponse.class)))),
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved a page of usage"),
+            @ApiResponse(responseCode = "400", description = "Unsupported sort field"),
             @ApiResponse(responseCode = "401", description = "Unauthorized - Admin access required")
     })
     @GetMapping("/admin/usage/clients")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<UsageResponse>> getAllClientsUsage() {
-        List<UsageResponse> responses = usageService.getAllClientsUsage();
+    public ResponseEntity<Page<UsageResponse>> getAllClientsUsage(
+            @Parameter(description = "Zero-based page index")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size (max " + MAX_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = "50") int size,
+            @Parameter(description = "percentageUsed, totalRequests, smsCount, emailCount, rateLimitHits, clientName or tierName")
+            @RequestParam(defaultValue = "percentageUsed") String sort,
+            @Parameter(description = "ASC or DESC")
+            @RequestParam(defaultValue = "DESC") String direction) {
+        Page<UsageResponse> responses = usageService.getAllClientsUsage(
+                Math.max(0, page), Math.min(Math.max(1, size), MAX_PAGE_SIZE), sort, direction);
         return ResponseEntity.ok(responses);
     }
 
@@ -116,6 +116,28 @@ public class UserController {
         return ResponseEntity.ok(user);
     }
 
+    @Operation(
+            summary = "Rotate API Key",
+            description = "Replace the API key of the current user. The new key is returned once and " +
+                    "is not stored in plaintext; the old key stops working immediately."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "API key rotated - the response carries the new key",
+                    content = @Content(schema = @Schema(implementation = UserResponse.class))
+            ),
+            @ApiResponse(responseCode = "404", description = "User not found"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required")
+    })
+    @PostMapping("/me/api-key")
+    @PreAuthorize("hasAnyRole('ADMIN', 'COMPANY')")
+    public ResponseEntity<UserResponse> rotateApiKey(
+            @Parameter(hidden = true) Authentication authentication) {
+        UserResponse response = userService.rotateApiKey(authentication.getName());
+        return ResponseEntity.ok(response);
+    }
+
     @Operation(
             summary = "Update User",
             description = "Update user profile information (email only in current implementation)"
@@ -13,15 +13,13 @@ public class AuthResponse {
     private String username;
     private String email;
     private String role;
-    private String apiKey;
 
-    public AuthResponse(String token, String userId, String username, String email, String role, String apiKey) {
+    public AuthResponse(String token, String userId, String username, String email, String role) {
         this.token = token;
         this.userId = userId;
         this.username = username;
         this.email = email;
         this.role = role;
-        this.apiKey = apiKey;
     }
 
 
@@ -49,10 +47,6 @@ public class AuthResponse {
         return role;
     }
 
-    public String getApiKey() {
-        return apiKey;
-    }
-
 
     public void setToken(String token) {
         this.token = token;
@@ -77,8 +71,4 @@ public class AuthResponse {
     public void setRole(String role) {
         this.role = role;
     }
-
-    public void setApiKey(String apiKey) {
-        this.apiKey = apiKey;
-    }
 }
\ No newline at end of file
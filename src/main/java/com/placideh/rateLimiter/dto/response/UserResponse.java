@@ -16,6 +16,8 @@ public class UserResponse {
     private Boolean isActive;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // plaintext API key - only set by registration and key rotation, it is not stored
+    private String apiKey;
 
 
     public String getId() {
@@ -54,6 +56,10 @@ public class UserResponse {
         return updatedAt;
     }
 
+    public String getApiKey() {
+        return apiKey;
+    }
+
 
     public void setId(String id) {
         this.id = id;
@@ -91,5 +97,7 @@ public class UserResponse {
         this.updatedAt = updatedAt;
     }
 
-
-}
\ No newline at end of file
+    public void setApiKey(String apiKey) {
+        this.apiKey = apiKey;
+    }
+}
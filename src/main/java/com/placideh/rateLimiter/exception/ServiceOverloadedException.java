@@ -0,0 +1,18 @@
+package com.placideh.rateLimiter.exception;
+
+/**
+ * Thrown when a bounded resource (e.g. the login bulkhead) sheds load - mapped to 503
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
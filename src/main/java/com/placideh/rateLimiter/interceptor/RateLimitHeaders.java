@@ -0,0 +1,41 @@
+package com.placideh.rateLimiter.interceptor;
+
+import com.placideh.rateLimiter.service.rateLimit.RateLimitResult;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Rate limit response headers
+ * Shared by the interceptor (blocking path) and the async notification endpoints
+ */
+public final class RateLimitHeaders {
+
+    public static final String LIMIT = "X-RateLimit-Limit";
+    public static final String REMAINING = "X-RateLimit-Remaining";
+    public static final String TYPE = "X-RateLimit-Type";
+    public static final String THROTTLING_LEVEL = "X-RateLimit-Throttling-Level";
+    public static final String ALGORITHM = "X-RateLimit-Algorithm";
+    public static final String WARNING = "X-RateLimit-Warning";
+
+    private RateLimitHeaders() {
+    }
+
+    public static void apply(HttpServletResponse response, RateLimitResult result) {
+        of(result).forEach((name, values) -> values.forEach(value -> response.setHeader(name, value)));
+    }
+
+    public static HttpHeaders of(RateLimitResult result) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(LIMIT, String.valueOf(result.getLimit()));
+        headers.set(REMAINING, String.valueOf(result.getRemainingRequests()));
+        headers.set(TYPE, result.getLimitType());
+        headers.set(THROTTLING_LEVEL, result.getThrottlingLevel());
+        headers.set(ALGORITHM, result.getAlgorithmUsed());
+
+        // add warning header for soft throttling
+        if ("SOFT".equals(result.getThrottlingLevel())) {
+            headers.set(WARNING, result.getThrottlingMessage());
+        }
+        return headers;
+    }
+}
@@ -3,10 +3,18 @@ package com.placideh.rateLimiter.interceptor;
 
 import com.placideh.rateLimiter.exception.InvalidApiKeyException;
 import com.placideh.rateLimiter.exception.RateLimitExceededException;
+import com.placideh.rateLimiter.exception.ResourceNotFoundException;
 import com.placideh.rateLimiter.model.User;
+import com.placideh.rateLimiter.security.ApiKeyFailureLimiter;
 import com.placideh.rateLimiter.service.RateLimiterService;
 import com.placideh.rateLimiter.service.UserService;
+import com.placideh.rateLimiter.service.cache.ApiKeyBloomFilter;
+import com.placideh.rateLimiter.service.cache.InvalidApiKeyCache;
+import com.placideh.rateLimiter.service.rateLimit.RateLimitDecisionContext;
 import com.placideh.rateLimiter.service.rateLimit.RateLimitResult;
+import com.placideh.rateLimiter.service.usage.UsageTracker;
+import com.placideh.rateLimiter.util.ApiKeyHasher;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
@@ -19,6 +27,11 @@ import org.springframework.web.servlet.HandlerInterceptor;
  * Intercepts notification endpoints and applies rate limiting
  *
  * Applied to: /notifications/**
+ *
+ * With rate-limit.async.enabled the interceptor only resolves the client;
+ * the limit check is done by the endpoint with checkAllLimitsAsync.
+ * A SOFT throttled request is not rejected or waited for here: its parked retry is
+ * stored (RateLimitDecisionContext.storePending) and the endpoint composes on it.
  */
 @Slf4j
 @Component
@@ -30,10 +43,27 @@ public class RateLimitInterceptor implements HandlerInterceptor {
     @Autowired
     private RateLimiterService rateLimiterService;
 
+    @Autowired
+    private UsageTracker usageTracker;
+
+    @Autowired
+    private ApiKeyBloomFilter apiKeyBloomFilter;
+
+    @Autowired
+    private InvalidApiKeyCache invalidApiKeyCache;
+
+    @Autowired
+    private ApiKeyFailureLimiter apiKeyFailureLimiter;
+
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
             throws Exception {
 
+        // the async re-dispatch of an already checked request
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
         // get API key from header
         String apiKey = request.getHeader("X-API-Key");
 
@@ -41,25 +71,54 @@ public class RateLimitInterceptor implements HandlerInterceptor {
             throw new InvalidApiKeyException("API key is required. Please provide X-API-Key header.");
         }
 
-        User client = userService.findApiKey(apiKey);
+        // the client address only when server.forward-headers-strategy trusts the proxy in front,
+        // otherwise the proxy's - see ApiKeyFailureLimiter
+        String remoteAddress = request.getRemoteAddr();
+
+        // unknown and recently failed keys are rejected here without a database lookup
+        String apiKeyHash = ApiKeyHasher.hash(apiKey);
+        if (invalidApiKeyCache.contains(apiKeyHash) || !apiKeyBloomFilter.mightContain(apiKeyHash)) {
+            throw invalidApiKey(remoteAddress);
+        }
+
+        User client;
+        try {
+            client = userService.findApiKey(apiKeyHash);
+        } catch (ResourceNotFoundException e) {
+            invalidApiKeyCache.put(apiKeyHash);
+            throw invalidApiKey(remoteAddress);
+        }
 
         if (client == null) {
-            throw new InvalidApiKeyException("Invalid API key");
+            throw invalidApiKey(remoteAddress);
         }
 
         if (!client.getIsActive()) {
             throw new InvalidApiKeyException("Client account is inactive");
         }
 
+        if (rateLimiterService.isAsyncEnabled()) {
+            request.setAttribute("client", client);
+            return true;
+        }
+
         log.debug("Rate limiting check for client: {} ({})", client.getUsername(), client.getId());
 
         // handle all rate limits (system-wide → window → monthly)
         RateLimitResult result = rateLimiterService.checkAllLimits(client);
 
+        if (result.getSoftRetry() != null) {
+            // SOFT throttled and parked - the endpoint completes the request once the retry decided
+            request.setAttribute("client", client);
+            RateLimitDecisionContext.storePending(request, result.getSoftRetry());
+            return true;
+        }
+
         if (!result.isAllowed()) {
             // Rate limit exceeded - log and throw exception
             log.warn("Rate limit exceeded for client {}: {} - {}",
                     client.getId(), result.getLimitType(), result.getThrottlingMessage());
+            usageTracker.recordRateLimitHit(client.getId());
 
             throw new RateLimitExceededException(
                     result.getLimitType(),
@@ -71,26 +130,26 @@ public class RateLimitInterceptor implements HandlerInterceptor {
         }
 
         // add rate limit headers to response
-        response.setHeader("X-RateLimit-Limit", String.valueOf(result.getLimit()));
-        response.setHeader("X-RateLimit-Remaining", String.valueOf(result.getRemainingRequests()));
-        response.setHeader("X-RateLimit-Type", result.getLimitType());
-        response.setHeader("X-RateLimit-Throttling-Level", result.getThrottlingLevel());
-        response.setHeader("X-RateLimit-Algorithm", result.getAlgorithmUsed());
+        RateLimitHeaders.apply(response, result);
 
-        // add warning header for soft throttling
         if ("SOFT".equals(result.getThrottlingLevel())) {
-            response.setHeader("X-RateLimit-Warning", result.getThrottlingMessage());
             log.info("Soft throttle warning for client {}: {}", client.getId(), result.getThrottlingMessage());
         }
 
-        // store client in request attribute for controllers
+        // store client in request attribute for controllers, and the decision for NotificationService to reuse
         request.setAttribute("client", client);
-        request.setAttribute("rateLimitResult", result);
+        RateLimitDecisionContext.store(request, client.getId(), result);
 
         log.debug("Rate limit check passed for client {}: {}/{} requests",
                 client.getId(), result.getCurrentUsage(), result.getLimit());
 
         return true;
     }
-}
 
+    // a blocked address only loses its bad keys - valid keys behind the same NAT or proxy still pass
+    private InvalidApiKeyException invalidApiKey(String remoteAddress) {
+        apiKeyFailureLimiter.checkNotBlocked(remoteAddress);
+        apiKeyFailureLimiter.recordFailure(remoteAddress);
+        return new InvalidApiKeyException("Invalid API key");
+    }
+}
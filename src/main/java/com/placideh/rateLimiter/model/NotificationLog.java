@@ -4,20 +4,22 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.domain.Persistable;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Entity
 @Table(name = "notification_logs")
 @NoArgsConstructor
 @AllArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
-public class NotificationLog {
+public class NotificationLog implements Persistable<String> {
 
+    // assigned in the application so the id is known before the (write-behind) insert
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
-    private String id;
+    private String id = UUID.randomUUID().toString();
 
     @Column(name = "client_id", nullable = false)
     private String clientId;
@@ -43,11 +45,28 @@ public class NotificationLog {
     @Column(length = 20)
     private String status = "SENT"; // SENT, FAILED, QUEUED
 
+    // auditing is not enabled - callers set sentAt explicitly
     @CreatedDate
     @Column(name = "sent_at", nullable = false, updatable = false)
     private LocalDateTime sentAt;
 
+    // an assigned id makes save() look like an update; this flag keeps it a plain INSERT (no SELECT first)
+    @Transient
+    private boolean isNew = true;
 
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+
+    @Override
     public String getId() {
         return id;
     }
@@ -30,9 +30,15 @@ public class User {
     @Column(name = "password", nullable = false)
     private String password;
 
-    @Column(name = "api_key", nullable = false)
+    // plaintext key of rows created before api_key_hash existed (e.g. seed data); nulled once
+    // the hash is backfilled - new keys are never stored, the client sees them only once
+    @Column(name = "api_key")
     private String apiKey;
 
+    // SHA-256 hex of the API key - what API key lookups use (ApiKeyHasher)
+    @Column(name = "api_key_hash", unique = true, length = 64)
+    private String apiKeyHash;
+
     @Column(nullable = false, length = 20)
     private String role; // ADMIN or COMPANY
 
@@ -93,4 +99,12 @@ public class User {
     public void setApiKey(String apiKey) {
         this.apiKey = apiKey;
     }
+
+    public String getApiKeyHash() {
+        return apiKeyHash;
+    }
+
+    public void setApiKeyHash(String apiKeyHash) {
+        this.apiKeyHash = apiKeyHash;
+    }
 }
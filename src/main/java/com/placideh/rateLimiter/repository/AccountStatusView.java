@@ -0,0 +1,11 @@
+package com.placideh.rateLimiter.repository;
+
+/**
+ * Closed projection of the fields that can revoke a token (UserRepository.findAccountStatusById)
+ */
+public interface AccountStatusView {
+
+    Boolean getActive();
+
+    String getRole();
+}
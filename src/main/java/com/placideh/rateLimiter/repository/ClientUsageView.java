@@ -0,0 +1,28 @@
+package com.placideh.rateLimiter.repository;
+
+/**
+ * Closed projection of one client's monthly usage joined with its user and tier
+ * (MonthlyUsageRepository.findClientUsageByYearMonth / findClientUsageByUserId)
+ */
+public interface ClientUsageView {
+
+    String getClientId();
+
+    String getClientName();
+
+    String getTierName();
+
+    String getYearMonth();
+
+    Long getTotalRequests();
+
+    Long getSmsCount();
+
+    Long getEmailCount();
+
+    Integer getRateLimitHits();
+
+    Integer getRequestsPerMinute();
+
+    Long getRequestsPerMonth();
+}
@@ -2,6 +2,8 @@ package com.placideh.rateLimiter.repository;
 
 
 import com.placideh.rateLimiter.model.MonthlyUsage;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -21,6 +23,31 @@ public interface MonthlyUsageRepository extends JpaRepository<MonthlyUsage, Stri
     @Query("SELECT m FROM MonthlyUsage m WHERE m.userId = :userId ORDER BY m.yearMonth DESC")
     List<MonthlyUsage> findByUserIdOrderByYearMonthDesc(String userId);
 
+    /**
+     * Usage of every client for one month in ONE query (usage ⨝ users ⨝ tiers), paged.
+     * Sort with JpaSort.unsafe on the aliases m / u / t (see UsageService).
+     */
+    @Query(value = "SELECT m.userId AS clientId, u.username AS clientName, t.name AS tierName, " +
+            "m.yearMonth AS yearMonth, m.totalRequests AS totalRequests, m.smsCount AS smsCount, " +
+            "m.emailCount AS emailCount, m.rateLimitHits AS rateLimitHits, " +
+            "t.requestsPerMinute AS requestsPerMinute, t.requestsPerMonth AS requestsPerMonth " +
+            "FROM MonthlyUsage m JOIN User u ON u.id = m.userId JOIN u.tier t " +
+            "WHERE m.yearMonth = :yearMonth",
+            countQuery = "SELECT COUNT(m) FROM MonthlyUsage m JOIN User u ON u.id = m.userId JOIN u.tier t " +
+                    "WHERE m.yearMonth = :yearMonth")
+    Page<ClientUsageView> findClientUsageByYearMonth(String yearMonth, Pageable pageable);
+
+    /**
+     * Usage history of one client as a projection; the Pageable limits and orders it in the database
+     */
+    @Query("SELECT m.userId AS clientId, u.username AS clientName, t.name AS tierName, " +
+            "m.yearMonth AS yearMonth, m.totalRequests AS totalRequests, m.smsCount AS smsCount, " +
+            "m.emailCount AS emailCount, m.rateLimitHits AS rateLimitHits, " +
+            "t.requestsPerMinute AS requestsPerMinute, t.requestsPerMonth AS requestsPerMonth " +
+            "FROM MonthlyUsage m JOIN User u ON u.id = m.userId JOIN u.tier t " +
+            "WHERE m.userId = :userId")
+    List<ClientUsageView> findClientUsageByUserId(String userId, Pageable pageable);
+
     @Query("SELECT SUM(m.totalRequests) FROM MonthlyUsage m WHERE m.yearMonth = :yearMonth")
     Long getTotalRequestsForMonth(String yearMonth);
 }
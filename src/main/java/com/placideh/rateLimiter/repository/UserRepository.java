@@ -18,7 +18,14 @@ public interface UserRepository extends JpaRepository<User, String> {
 
     Optional<User> findByTierId(String tierId);
 
-    Optional<User> findByApiKey(String apiKey);
+    Optional<User> findByApiKeyHash(String apiKeyHash);
+
+    List<User> findByApiKeyIsNotNull();
+
+    long countByApiKeyHashIsNotNull();
+
+    @Query("SELECT u.apiKeyHash FROM User u WHERE u.apiKeyHash IS NOT NULL")
+    List<String> findAllApiKeyHashes();
 
     boolean existsByUsername(String username);
 
@@ -26,4 +33,7 @@ public interface UserRepository extends JpaRepository<User, String> {
     List<User> findByTierIdAndIsActive(String tierId, boolean isActive);
 
     boolean existsByEmail(String email);
+
+    @Query("SELECT u.isActive AS active, u.role AS role FROM User u WHERE u.id = :id")
+    Optional<AccountStatusView> findAccountStatusById(String id);
 }
@@ -0,0 +1,129 @@
+package com.placideh.rateLimiter.security;
+
+import com.placideh.rateLimiter.exception.RateLimitExceededException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * API Key Failure Limiter
+ * Counts invalid API key attempts per remote address and blocks an address that
+ * reaches security.api-key.failures.max within window-seconds for block-seconds
+ *
+ * 1. Checked in RateLimitInterceptor when a key is rejected - a blocked address gets 429
+ *    for invalid keys, while keys that pass the Bloom filter and the lookup are still
+ *    served, so one bad client behind a NAT or load balancer does not lock out the others
+ * 2. In memory per node: a blocked check costs one map lookup, no Redis or Postgres
+ * 3. Idle addresses are dropped by a periodic sweep; at max-tracked addresses new ones
+ *    are not tracked until the next sweep (fails open rather than growing without bound)
+ *
+ * The address is request.getRemoteAddr(). Behind a reverse proxy or load balancer set
+ * server.forward-headers-strategy (NATIVE or FRAMEWORK) and let only the trusted proxy set
+ * X-Forwarded-For; otherwise every client shares the proxy's address here.
+ */
+@Slf4j
+@Component
+public class ApiKeyFailureLimiter {
+
+    public static final String LIMIT_TYPE = "INVALID_API_KEY";
+
+    @Value("${security.api-key.failures.max:20}")
+    private int maxFailures;
+
+    @Value("${security.api-key.failures.window-seconds:60}")
+    private long windowSeconds;
+
+    @Value("${security.api-key.failures.block-seconds:300}")
+    private long blockSeconds;
+
+    @Value("${security.api-key.failures.max-tracked:100000}")
+    private int maxTracked;
+
+    private final Map<String, FailureWindow> windows = new ConcurrentHashMap<>();
+
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder blocks = new LongAdder();
+    private final LongAdder blockedRequests = new LongAdder();
+
+    /**
+     * Throws RateLimitExceededException while the address is blocked
+     */
+    public void checkNotBlocked(String remoteAddress) {
+        FailureWindow window = windows.get(remoteAddress);
+        if (window == null) {
+            return;
+        }
+        long remainingNanos = window.blockedUntilNanos - System.nanoTime();
+        if (remainingNanos > 0) {
+            blockedRequests.increment();
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remainingNanos));
+            throw new RateLimitExceededException(LIMIT_TYPE, window.failures, maxFailures, retryAfterSeconds,
+                    "Too many invalid API key attempts. Try again in " + retryAfterSeconds + " seconds.");
+        }
+    }
+
+    public void recordFailure(String remoteAddress) {
+        failures.increment();
+        FailureWindow window = windows.get(remoteAddress);
+        if (window == null) {
+            if (windows.size() >= maxTracked) {
+                return;
+            }
+            window = windows.computeIfAbsent(remoteAddress, address -> new FailureWindow());
+        }
+
+        long now = System.nanoTime();
+        synchronized (window) {
+            if (now - window.windowStartNanos > TimeUnit.SECONDS.toNanos(windowSeconds)) {
+                window.windowStartNanos = now;
+                window.failures = 0;
+            }
+            window.failures++;
+            window.lastFailureNanos = now;
+            if (window.failures >= maxFailures && window.blockedUntilNanos - now <= 0) {
+                window.blockedUntilNanos = now + TimeUnit.SECONDS.toNanos(blockSeconds);
+                blocks.increment();
+                log.warn("Blocking {} for {}s after {} invalid API key attempts", remoteAddress, blockSeconds, window.failures);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${security.api-key.failures.sweep-ms:60000}")
+    public void sweep() {
+        long now = System.nanoTime();
+        long idleNanos = TimeUnit.SECONDS.toNanos(Math.max(windowSeconds, blockSeconds));
+        windows.entrySet().removeIf(e -> {
+            FailureWindow window = e.getValue();
+            return window.blockedUntilNanos - now <= 0 && now - window.lastFailureNanos > idleNanos;
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        long now = System.nanoTime();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("maxFailures", maxFailures);
+        stats.put("windowSeconds", windowSeconds);
+        stats.put("blockSeconds", blockSeconds);
+        stats.put("trackedAddresses", windows.size());
+        stats.put("blockedAddresses", windows.values().stream().filter(w -> w.blockedUntilNanos - now > 0).count());
+        stats.put("failures", failures.sum());
+        stats.put("blocks", blocks.sum());
+        stats.put("blockedRequests", blockedRequests.sum());
+        return stats;
+    }
+
+    private static final class FailureWindow {
+        private long windowStartNanos = System.nanoTime();
+        private volatile int failures;
+        private long lastFailureNanos = windowStartNanos;
+        // start already expired
+        private volatile long blockedUntilNanos = windowStartNanos;
+    }
+}
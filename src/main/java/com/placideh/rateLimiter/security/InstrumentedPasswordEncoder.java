@@ -0,0 +1,102 @@
+package com.placideh.rateLimiter.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * BCrypt password encoder with a configurable cost and hash latency counters
+ *
+ * upgradeEncoding is true whenever a stored hash was made with a different cost than
+ * the configured one (BCryptPasswordEncoder only reports lower costs), so DaoAuthenticationProvider
+ * rehashes the password on the next successful login through UserDetailsPasswordService.
+ */
+public class InstrumentedPasswordEncoder implements PasswordEncoder {
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+
+    private final Timing encodeTiming = new Timing();
+    private final Timing matchesTiming = new Timing();
+    private final LongAdder upgradesRequested = new LongAdder();
+
+    public InstrumentedPasswordEncoder(int strength) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTiming.time(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return matchesTiming.time(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int cost = costOf(encodedPassword);
+        boolean upgrade = cost >= 0 && cost != strength;
+        if (upgrade) {
+            upgradesRequested.increment();
+        }
+        return upgrade;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("strength", strength);
+        stats.put("encode", encodeTiming.toMap());
+        stats.put("matches", matchesTiming.toMap());
+        stats.put("upgradesRequested", upgradesRequested.sum());
+        return stats;
+    }
+
+    // "$2a$12$..." -> 12, or -1 when the hash is not BCrypt
+    private static int costOf(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$'
+                || encodedPassword.charAt(3) != '$' || encodedPassword.charAt(6) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static final class Timing {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private <T> T time(Supplier<T> work) {
+            long start = System.nanoTime();
+            try {
+                return work.get();
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                count.increment();
+                totalNanos.add(elapsed);
+                maxNanos.accumulate(elapsed);
+            }
+        }
+
+        private Map<String, Object> toMap() {
+            long calls = count.sum();
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("count", calls);
+            stats.put("avgMs", calls == 0 ? 0.0 : TimeUnit.NANOSECONDS.toMicros(totalNanos.sum() / calls) / 1000.0);
+            stats.put("maxMs", TimeUnit.NANOSECONDS.toMicros(maxNanos.get()) / 1000.0);
+            return stats;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.placideh.rateLimiter.security;
 
+import com.placideh.rateLimiter.service.cache.AccountStatusCache;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,6 +16,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Objects;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -24,6 +27,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService customUserDetailsService;
 
+    @Autowired
+    private AccountStatusCache accountStatusCache;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -32,11 +38,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
+            Claims claims = StringUtils.hasText(jwt) ? tokenProvider.parseAndValidate(jwt).orElse(null) : null;
 
-                UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
+            if (claims != null) {
 
+                UserDetails userDetails = claims.get(JwtTokenProvider.CLAIM_USER_ID) != null
+                        ? principalFromClaims(claims)
+                        // tokens issued before the claims were added
+                        : customUserDetailsService.loadUserByUsername(claims.getSubject());
+
+                if (userDetails == null || !userDetails.isEnabled()) {
+                    logger.debug("JWT rejected: account is inactive, deleted or its role changed");
+                    filterChain.doFilter(request, response);
+                    return;
+                }
 
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
@@ -56,6 +71,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             filterChain.doFilter(request, response);
     }
 
+    // principal from the token claims; the account status cache keeps revoked accounts out
+    private UserDetails principalFromClaims(Claims claims) {
+        String userId = claims.get(JwtTokenProvider.CLAIM_USER_ID, String.class);
+        String role = claims.get(JwtTokenProvider.CLAIM_ROLE, String.class);
+
+        AccountStatusCache.AccountStatus status = accountStatusCache.get(userId);
+        if (!status.isActive() || !Objects.equals(status.getRole(), role)) {
+            return null;
+        }
+
+        return new JwtPrincipal(userId, claims.getSubject(), role,
+                claims.get(JwtTokenProvider.CLAIM_TIER_ID, String.class));
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         System.out.println("do we have it : "+bearerToken);
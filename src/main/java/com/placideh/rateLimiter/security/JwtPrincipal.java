@@ -0,0 +1,76 @@
+package com.placideh.rateLimiter.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Authenticated user rebuilt from JWT claims (no users table lookup)
+ */
+public class JwtPrincipal implements UserDetails {
+
+    private final String userId;
+    private final String username;
+    private final String role;
+    private final String tierId;
+    private final Collection<? extends GrantedAuthority> authorities;
+
+    public JwtPrincipal(String userId, String username, String role, String tierId) {
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+        this.tierId = tierId;
+        this.authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public String getTierId() {
+        return tierId;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    // the password is never part of a token
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
@@ -0,0 +1,90 @@
+package com.placideh.rateLimiter.security;
+
+import com.placideh.rateLimiter.exception.ServiceOverloadedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Login Bulkhead
+ * Runs password hashing (login, register) on the bounded "loginExecutor" instead of
+ * the request threads, so a login spike cannot take the CPU from notification traffic
+ *
+ * 1. At most security.login.threads hashes run at once, security.login.queue-capacity wait
+ * 2. A full queue, or a wait longer than security.login.timeout-ms, fails fast with 503
+ */
+@Slf4j
+@Component
+public class LoginBulkhead {
+
+    @Autowired
+    @Qualifier("loginExecutor")
+    private ThreadPoolTaskExecutor loginExecutor;
+
+    @Value("${security.login.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    public <T> T execute(Supplier<T> work) {
+        Future<T> future;
+        try {
+            future = loginExecutor.submit(work::get);
+        } catch (TaskRejectedException e) {
+            rejected.increment();
+            log.warn("Login bulkhead full - rejecting request");
+            throw new ServiceOverloadedException("Too many login attempts in progress. Please retry shortly.", 1);
+        }
+
+        try {
+            T result = future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            executed.increment();
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            throw new ServiceOverloadedException("Login timed out while the server is busy. Please retry shortly.", 1);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException("Login interrupted", 1);
+        } catch (ExecutionException e) {
+            // surface the original failure (e.g. BadCredentialsException -> 401)
+            executed.increment();
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("threads", loginExecutor.getMaxPoolSize());
+        stats.put("active", loginExecutor.getActiveCount());
+        stats.put("queued", loginExecutor.getThreadPoolExecutor().getQueue().size());
+        stats.put("executed", executed.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("timedOut", timedOut.sum());
+        return stats;
+    }
+}
@@ -11,7 +11,10 @@ import com.placideh.rateLimiter.model.User;
 import com.placideh.rateLimiter.repository.TierRepository;
 import com.placideh.rateLimiter.repository.UserRepository;
 import com.placideh.rateLimiter.security.JwtTokenProvider;
+import com.placideh.rateLimiter.security.LoginBulkhead;
+import com.placideh.rateLimiter.service.cache.ApiKeyBloomFilter;
 import com.placideh.rateLimiter.util.ApiKeyGenerator;
+import com.placideh.rateLimiter.util.ApiKeyHasher;
 import com.placideh.rateLimiter.util.Constants;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -20,7 +23,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 
@@ -44,57 +47,87 @@ public class AuthService {
     @Autowired
     private ApiKeyGenerator apiKeyGenerator;
 
+    @Autowired
+    private LoginBulkhead loginBulkhead;
+
+    @Autowired
+    private ApiKeyBloomFilter apiKeyBloomFilter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
 
     public AuthResponse login(LoginRequest request) {
-        Authentication authentication = authenticationManager.authenticate(
+        // BCrypt runs on the login bulkhead, not on the request thread
+        Authentication authentication = loginBulkhead.execute(() -> authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         request.getUsername(),
                         request.getPassword()
                 )
-        );
+        ));
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = tokenProvider.generateToken(authentication);
 
         User user = userRepository.findByUsername(request.getUsername())
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", request.getUsername()));
 
+        // role, userId and tierId travel in the token so later requests need no user lookup
+        String jwt = tokenProvider.generateToken(user);
+
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
-        return new AuthResponse(jwt, user.getId(), user.getUsername(),
-                user.getEmail(), user.getRole(), user.getId(),user.getApiKey());
+        // the API key is not returned here - only its hash is stored (see register)
+        return new AuthResponse(jwt, user.getId(), user.getUsername(), user.getEmail(), user.getRole());
     }
 
-    @Transactional
+    /**
+     * Registers a company account on the FREE tier
+     *
+     * 1. Cheap checks first, so a duplicate username or email never costs a BCrypt hash
+     * 2. The password is hashed on the login bulkhead BEFORE the transaction starts -
+     *    a Hikari connection is never held while a request waits for a BCrypt slot
+     * 3. The insert runs in a short transaction that only receives the hash
+     * 4. Only the SHA-256 of the new API key is stored; the plaintext key is in this
+     *    response and nowhere else (a lost key is replaced through key rotation)
+     *
+     * The unique constraints on username and email still catch concurrent duplicates.
+     */
     public UserResponse register(CreateUserRequest request) {
 
         if (userRepository.existsByUsername(request.getUsername())) throw new IllegalArgumentException("Username already exists");
 
         if (userRepository.existsByEmail(request.getEmail())) throw new IllegalArgumentException("Email already exists");
 
+        String passwordHash = loginBulkhead.execute(() -> passwordEncoder.encode(request.getPassword()));
 
+        String plainApiKey = apiKeyGenerator.generateApiKey();
+        User user = transactionTemplate.execute(status -> createUser(request, passwordHash, plainApiKey));
+        // committed at this point, so the new key passes the interceptor on every node
+        apiKeyBloomFilter.add(user.getApiKeyHash());
+
+        UserResponse response = mapToResponse(user);
+        response.setApiKey(plainApiKey);
+        return response;
+    }
 
+    private User createUser(CreateUserRequest request, String passwordHash, String plainApiKey) {
         // Verify tier exists
         Tier freeTier = tierRepository.findByName("FREE")
                 .orElseThrow(() -> new ResourceNotFoundException("FREE tier not found. Please create default tiers first."));
 
-        String plainApiKey = apiKeyGenerator.generateApiKey();
         // Create user
         User user = new User();
         user.setUsername(request.getUsername());
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHash);
         user.setRole(Constants.ROLE_COMPANY);
         user.setTierId(freeTier.getId());
         user.setTier(freeTier);
         user.setCreatedAt(LocalDateTime.now());
         user.setIsActive(true);
-        user.setApiKey(plainApiKey);
-
-        user = userRepository.save(user);
-
+        user.setApiKeyHash(ApiKeyHasher.hash(plainApiKey));
 
-        return mapToResponse(user);
+        return userRepository.save(user);
     }
 
     private UserResponse mapToResponse(User user) {
@@ -6,41 +6,62 @@ import com.placideh.rateLimiter.dto.request.SendSmsRequest;
 import com.placideh.rateLimiter.dto.response.NotificationResponse;
 import com.placideh.rateLimiter.exception.RateLimitExceededException;
 import com.placideh.rateLimiter.model.NotificationLog;
-import com.placideh.rateLimiter.model.SystemConfig;
 import com.placideh.rateLimiter.model.User;
-import com.placideh.rateLimiter.repository.NotificationLogRepository;
-import com.placideh.rateLimiter.repository.SystemConfigRepository;
+import com.placideh.rateLimiter.service.notification.NotificationLogWriter;
+import com.placideh.rateLimiter.service.rateLimit.BulkRateLimitResult;
+import com.placideh.rateLimiter.service.rateLimit.RateLimitDecisionContext;
 import com.placideh.rateLimiter.service.rateLimit.RateLimitResult;
+import com.placideh.rateLimiter.service.usage.UsageTracker;
 import com.placideh.rateLimiter.util.Constants;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 
 /**
  * Notification Service with BUILT-IN Rate Limiting
  *
  * Rate limiting happens HERE before sending any notification
  * This ensures ALL calls (HTTP, scheduled jobs, queues) are rate limited
+ * A decision already taken by RateLimitInterceptor for the same request is reused, not repeated
  */
 @Slf4j
 @Service
 public class NotificationService {
 
     @Autowired
-    private NotificationLogRepository notificationLogRepository;
+    private NotificationLogWriter notificationLogWriter;
 
     @Autowired
-    private SystemConfigRepository systemConfigRepository;
+    private UsageTracker usageTracker;
 
     @Autowired
     private RateLimiterService rateLimiterService;
 
+    @Autowired
+    @Qualifier("batchDispatchExecutor")
+    private Executor batchDispatchExecutor;
+
+    // max items of one batch delivered at the same time
+    @Value("${notification.batch.concurrency:16}")
+    private int batchConcurrency;
+
+    // stop reporting a batch at its first rate limited item (pre-reservation behaviour)
+    @Value("${notification.batch.stop-on-rate-limit:false}")
+    private boolean stopOnRateLimit;
+
     /**
      * Send SMS with rate limiting
      *
@@ -50,11 +71,16 @@ public class NotificationService {
      * @throws RateLimitExceededException if rate limit exceeded
      */
     public NotificationResponse sendSms(User client, SendSmsRequest request) {
+        return sendSms(client, request, decide(client));
+    }
+
+    /**
+     * Send SMS with a rate limit decision that was already taken (e.g. by checkAllLimitsAsync)
+     */
+    public NotificationResponse sendSms(User client, SendSmsRequest request, RateLimitResult rateLimitResult) {
         log.info("SMS request from user: {} (Tier: {}) to: {}",
                 client.getId(), client.getTier().getName(), request.getTo());
 
-        RateLimitResult rateLimitResult = rateLimiterService.checkAllLimits(client);
-
         if (!rateLimitResult.isAllowed()) {
             log.warn("SMS BLOCKED - Rate limit exceeded for user {}: {} (Type: {}, Usage: {}/{})",
                     client.getId(),
@@ -63,6 +89,8 @@ public class NotificationService {
                     rateLimitResult.getCurrentUsage(),
                     rateLimitResult.getLimit());
 
+            usageTracker.recordRateLimitHit(client.getId());
+
             throw new RateLimitExceededException(
                     rateLimitResult.getLimitType(),
                     rateLimitResult.getCurrentUsage(),
@@ -85,10 +113,17 @@ public class NotificationService {
         log.setTierAtSend(client.getTier().getName());
         log.setSentAt(LocalDateTime.now());
         log.setStatus(Constants.NOTIF_STATUS_SENT);
-        log = notificationLogRepository.save(log);
 
-
-        System.out.println("SMS sent to: " + request.getTo() + " - Message: " + request.getMessage());
+        try {
+            deliver(log);
+        } catch (RuntimeException e) {
+            // admitted but not sent - give the tokens back before the client retries
+            rateLimiterService.refund(client, rateLimitResult);
+            throw e;
+        }
+        // write-behind: the insert is batched off the request path, the id is already assigned
+        notificationLogWriter.enqueue(log);
+        usageTracker.recordNotification(client.getId(), Constants.NOTIFICATION_SMS);
 
 
         NotificationResponse notificationResponse = new NotificationResponse();
@@ -104,11 +139,16 @@ public class NotificationService {
 
  // send Email with rate limiting
     public NotificationResponse sendEmail(User client, SendEmailRequest request) {
+        return sendEmail(client, request, decide(client));
+    }
+
+    /**
+     * Send Email with a rate limit decision that was already taken (e.g. by checkAllLimitsAsync)
+     */
+    public NotificationResponse sendEmail(User client, SendEmailRequest request, RateLimitResult rateLimitResult) {
         log.info("Email request from user: {} (Tier: {}) to: {}",
                 client.getId(), client.getTier().getName(), request.getTo());
 
-        RateLimitResult rateLimitResult = rateLimiterService.checkAllLimits(client);
-
         if (!rateLimitResult.isAllowed()) {
             log.warn("EMAIL BLOCKED - Rate limit exceeded for user {}: {} (Type: {}, Usage: {}/{})",
                     client.getId(),
@@ -120,6 +160,8 @@ public class NotificationService {
             logFailedNotification(client, Constants.NOTIFICATION_EMAIL, request.getTo(),
                     request.getBody(), request.getSubject(), "Rate limit exceeded: " + rateLimitResult.getThrottlingMessage());
 
+            usageTracker.recordRateLimitHit(client.getId());
+
             throw new RateLimitExceededException(
                     rateLimitResult.getLimitType(),
                     rateLimitResult.getCurrentUsage(),
@@ -143,11 +185,18 @@ public class NotificationService {
         log.setMessageContent(request.getBody());
         log.setAlgorithmUsed(algorithm);
         log.setTierAtSend(client.getTier().getName());
+        log.setSentAt(LocalDateTime.now());
         log.setStatus(Constants.NOTIF_STATUS_SENT);
-        log = notificationLogRepository.save(log);
 
-
-        System.out.println("Email sent to: " + request.getTo() + " - Subject: " + request.getSubject());
+        try {
+            deliver(log);
+        } catch (RuntimeException e) {
+            // admitted but not sent - give the tokens back before the client retries
+            rateLimiterService.refund(client, rateLimitResult);
+            throw e;
+        }
+        notificationLogWriter.enqueue(log);
+        usageTracker.recordNotification(client.getId(), Constants.NOTIFICATION_EMAIL);
 
 
         NotificationResponse notificationResponse = new NotificationResponse();
@@ -162,74 +211,242 @@ public class NotificationService {
     }
 
 
+    /**
+     * Send a batch with ONE rate limit reservation for all of its items
+     *
+     * 1. The interceptor decision (if any) covers the first item, the other items are reserved in one call
+     * 2. The admitted items are delivered in parallel (at most notification.batch.concurrency at a time)
+     * 3. Their logs (SENT or FAILED) go to the write-behind log writer
+     * 4. Items beyond K are reported as rate limited without further Redis calls
+     * Unknown types are failed and never charged. Responses keep the order of the request.
+     * With notification.batch.stop-on-rate-limit the response ends at the first rate limited item.
+     */
     public List<NotificationResponse> sendBatch(User client, BatchNotificationRequest request) {
+        return sendBatch(client, request, RateLimitDecisionContext.consume(client.getId()));
+    }
 
-        List<NotificationResponse> responses = new ArrayList<>();
-        int successCount = 0;
-        int failedCount = 0;
-        int rateLimitedCount = 0;
+    /**
+     * Send a batch with a decision already taken for its first item (e.g. a SOFT throttle retry);
+     * a rejected or missing decision pre-admits nothing
+     */
+    public List<NotificationResponse> sendBatch(User client, BatchNotificationRequest request,
+                                                RateLimitResult firstItemDecision) {
+
+        List<BatchNotificationRequest.NotificationItem> items = request.getNotifications();
+        long validCount = items.stream().filter(item -> isSupportedType(item.getType())).count();
+
+        RateLimitResult interceptorDecision = firstItemDecision != null && firstItemDecision.isAllowed()
+                ? firstItemDecision : null;
+        long preAdmitted = interceptorDecision != null ? 1 : 0;
+
+        BulkRateLimitResult reservation = null;
+        if (validCount > preAdmitted) {
+            reservation = rateLimiterService.reserve(client, validCount - preAdmitted);
+        } else if (interceptorDecision != null && validCount == 0) {
+            // the interceptor charged this request but no item can use it
+            rateLimiterService.refund(client, interceptorDecision);
+        }
 
-        for (BatchNotificationRequest.NotificationItem item : request.getNotifications()) {
-            try {
-                NotificationResponse response;
-
-                if (Constants.NOTIFICATION_SMS.equals(item.getType())) {
-                    SendSmsRequest smsRequest = new SendSmsRequest(item.getTo(), item.getMessage());
-                    response = sendSms(client, smsRequest);
-                    successCount++;
-                } else if (Constants.NOTIFICATION_EMAIL.equals(item.getType())) {
-                    SendEmailRequest emailRequest = new SendEmailRequest(
-                            item.getTo(), item.getSubject(), item.getBody());
-                    response = sendEmail(client, emailRequest);
-                    successCount++;
-                } else {
-                    response = buildFailedResponse(item.getType(), item.getTo(), "Unknown notification type");
-                    failedCount++;
-                }
+        long admittedCount = Math.min(validCount, preAdmitted + (reservation != null ? reservation.getGranted() : 0));
+        RateLimitResult rejection = reservation != null ? reservation.getRejected() : null;
+
+        log.info("Batch for user {}: {} of {} notifications admitted", client.getId(), admittedCount, validCount);
 
-                responses.add(response);
+        NotificationResponse[] responses = new NotificationResponse[items.size()];
+        List<BatchEntry> admitted = new ArrayList<>((int) admittedCount);
+        int failedCount = 0;
+        int rateLimitedCount = 0;
+        int firstRateLimited = -1;
+        long validIndex = 0;
+        String algorithm = getCurrentAlgorithm();
 
-            } catch (RateLimitExceededException e) {
-                // Rate limit hit - log and continue with remaining
-                log.warn("Batch item #{} rate limited for user {}: {}",
-                        responses.size() + 1, client.getId(), e.getMessage());
+        for (int i = 0; i < items.size(); i++) {
+            BatchNotificationRequest.NotificationItem item = items.get(i);
+            if (!isSupportedType(item.getType())) {
+                responses[i] = buildFailedResponse(item.getType(), item.getTo(), "Unknown notification type");
+                failedCount++;
+                continue;
+            }
 
-                NotificationResponse failedResponse = buildFailedResponse(
+            long index = validIndex++;
+            if (index >= admittedCount) {
+                responses[i] = buildFailedResponse(
                         item.getType(),
                         item.getTo(),
-                        "Rate limit exceeded: " + e.getMessage()
+                        "Rate limit exceeded: " + (rejection != null ? rejection.getThrottlingMessage() : "batch not admitted")
                 );
+                rateLimitedCount++;
+                if (firstRateLimited < 0) {
+                    firstRateLimited = i;
+                }
+                continue;
+            }
 
+            RateLimitResult decision = index < preAdmitted ? interceptorDecision : reservation.getAdmitted();
+            admitted.add(new BatchEntry(i, buildBatchLog(client, item, algorithm), decision));
+        }
 
-                responses.add(failedResponse);
-                rateLimitedCount++;
+        int dispatchFailed = dispatchAdmitted(client, admitted, responses);
+        failedCount += dispatchFailed;
+        int successCount = admitted.size() - dispatchFailed;
+        notificationLogWriter.enqueueAll(admitted.stream().map(entry -> entry.log).toList());
+        recordBatchUsage(client, admitted);
 
-                break;
+        if (rateLimitedCount > 0) {
+            usageTracker.recordRateLimitHits(client.getId(), rateLimitedCount);
+            log.warn("Batch rate limited for user {}: {} notifications rejected ({})",
+                    client.getId(), rateLimitedCount, rejection != null ? rejection.getLimitType() : "UNKNOWN");
+        }
 
-            } catch (Exception e) {
-                log.error("Batch item failed for user {}: {}", client.getId(), e.getMessage(), e);
+        List<NotificationResponse> result = Arrays.asList(responses);
+        if (stopOnRateLimit && firstRateLimited >= 0) {
+            // legacy behaviour: nothing after the first rate limited item is reported
+            result = new ArrayList<>(result.subList(0, firstRateLimited + 1));
+        }
 
-                NotificationResponse failedResponse = buildFailedResponse(
-                        item.getType(),
-                        item.getTo(),
-                        "Failed: " + e.getMessage()
-                );
-                responses.add(failedResponse);
-                failedCount++;
+        log.info("Batch processing complete for user {}. Success: {}, Failed: {}, Rate Limited: {}, Total: {}",
+                client.getId(), successCount, failedCount, rateLimitedCount, result.size());
+
+        return result;
+    }
+
+    // delivers the admitted items in parallel, bounded per batch; failed deliveries are refunded and marked FAILED
+    private int dispatchAdmitted(User client, List<BatchEntry> admitted, NotificationResponse[] responses) {
+        Semaphore permits = new Semaphore(Math.max(1, batchConcurrency));
+        List<CompletableFuture<Void>> deliveries = new ArrayList<>(admitted.size());
+
+        for (BatchEntry entry : admitted) {
+            permits.acquireUninterruptibly();
+            CompletableFuture<Void> delivery;
+            try {
+                delivery = CompletableFuture.runAsync(() -> deliver(entry.log), batchDispatchExecutor);
+            } catch (RuntimeException e) {
+                // rejected (saturated or shut down) - fails the item; whenComplete below releases the permit
+                delivery = CompletableFuture.failedFuture(e);
             }
+            deliveries.add(delivery.whenComplete((ignored, error) -> {
+                permits.release();
+                if (error != null) {
+                    entry.error = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                }
+            }));
         }
 
-        log.info("Batch processing complete for user {}. Success: {}, Failed: {}, Rate Limited: {}, Total: {}",
-                client.getId(), successCount, failedCount, rateLimitedCount, responses.size());
+        deliveries.forEach(delivery -> delivery.exceptionally(error -> null).join());
+
+        int failedCount = 0;
+        for (BatchEntry entry : admitted) {
+            if (entry.error == null) {
+                responses[entry.position] = buildSentResponse(entry.log);
+                continue;
+            }
+
+            // admitted but not sent - give the tokens back before the client retries
+            log.error("Batch item failed for user {}: {}", client.getId(), entry.error.getMessage(), entry.error);
+            rateLimiterService.refund(client, entry.decision);
+            entry.log.setStatus(Constants.NOTIF_STATUS_FAILED);
+            responses[entry.position] = buildFailedResponse(
+                    entry.log.getNotificationType(), entry.log.getRecipient(), "Failed: " + entry.error.getMessage());
+            failedCount++;
+        }
+        return failedCount;
+    }
+
+    // one usage update per notification type instead of one per item
+    private void recordBatchUsage(User client, List<BatchEntry> admitted) {
+        long smsSent = 0;
+        long emailSent = 0;
+        for (BatchEntry entry : admitted) {
+            if (entry.error != null) {
+                continue;
+            }
+            if (Constants.NOTIFICATION_SMS.equals(entry.log.getNotificationType())) {
+                smsSent++;
+            } else {
+                emailSent++;
+            }
+        }
+        if (smsSent > 0) {
+            usageTracker.recordNotifications(client.getId(), Constants.NOTIFICATION_SMS, smsSent);
+        }
+        if (emailSent > 0) {
+            usageTracker.recordNotifications(client.getId(), Constants.NOTIFICATION_EMAIL, emailSent);
+        }
+    }
+
+    private void deliver(NotificationLog notification) {
+        if (Constants.NOTIFICATION_SMS.equals(notification.getNotificationType())) {
+            System.out.println("SMS sent to: " + notification.getRecipient() + " - Message: " + notification.getMessageContent());
+        } else {
+            System.out.println("Email sent to: " + notification.getRecipient() + " - Subject: " + notification.getSubject());
+        }
+    }
 
-        return responses;
+    private NotificationLog buildBatchLog(User client, BatchNotificationRequest.NotificationItem item, String algorithm) {
+        boolean sms = Constants.NOTIFICATION_SMS.equals(item.getType());
+
+        NotificationLog log = new NotificationLog();
+        log.setClientId(client.getId());
+        log.setNotificationType(item.getType());
+        log.setRecipient(item.getTo());
+        log.setSubject(sms ? null : item.getSubject());
+        log.setMessageContent(sms ? item.getMessage() : item.getBody());
+        log.setAlgorithmUsed(algorithm);
+        log.setTierAtSend(client.getTier().getName());
+        log.setSentAt(LocalDateTime.now());
+        log.setStatus(Constants.NOTIF_STATUS_SENT);
+        return log;
+    }
+
+    private NotificationResponse buildSentResponse(NotificationLog log) {
+        boolean sms = Constants.NOTIFICATION_SMS.equals(log.getNotificationType());
+
+        NotificationResponse notificationResponse = new NotificationResponse();
+        notificationResponse.setId(log.getId());
+        notificationResponse.setStatus(Constants.NOTIF_STATUS_SENT);
+        notificationResponse.setType(log.getNotificationType());
+        notificationResponse.setRecipient(log.getRecipient());
+        notificationResponse.setSentAt(log.getSentAt());
+        notificationResponse.setMessage(sms ? "SMS sent successfully" : "Email sent successfully");
+        return notificationResponse;
+    }
+
+    // an admitted batch item: its slot in the response, its log row and the decision that admitted it
+    private static final class BatchEntry {
+        private final int position;
+        private final NotificationLog log;
+        private final RateLimitResult decision;
+        private volatile Throwable error;
+
+        private BatchEntry(int position, NotificationLog log, RateLimitResult decision) {
+            this.position = position;
+            this.log = log;
+            this.decision = decision;
+        }
     }
 
+    private boolean isSupportedType(String type) {
+        return Constants.NOTIFICATION_SMS.equals(type) || Constants.NOTIFICATION_EMAIL.equals(type);
+    }
+
+
+    // reuse the decision the interceptor already took for this request - tokens are consumed once
+    private RateLimitResult decide(User client) {
+        RateLimitResult decision = RateLimitDecisionContext.consume(client.getId());
+        if (decision != null) {
+            log.debug("Reusing rate limit decision from interceptor for user {}", client.getId());
+            return decision;
+        }
+        RateLimitResult result = rateLimiterService.checkAllLimits(client);
+        // only reached outside an HTTP request (the interceptor stores a decision or a pending
+        // retry for every notification request), so this caller's own thread waits out the delay
+        return result.getSoftRetry() != null ? result.getSoftRetry().join() : result;
+    }
 
+    // served from memory by the strategy resolver - no system_config query per notification
     private String getCurrentAlgorithm() {
-        return systemConfigRepository.findByConfigKey("RATE_LIMIT_ALGORITHM")
-                .map(SystemConfig::getConfigValue)
-                .orElse(Constants.TOKEN_BUCKET);
+        return rateLimiterService.getActiveAlgorithm();
     }
 
 
@@ -271,7 +488,8 @@ public class NotificationService {
         log.setSubject(subject);
         log.setAlgorithmUsed(getCurrentAlgorithm());
         log.setTierAtSend(client.getTier().getName());
+        log.setSentAt(LocalDateTime.now());
         log.setStatus(Constants.NOTIF_STATUS_FAILED);
-        notificationLogRepository.save(log);
+        notificationLogWriter.enqueue(log);
     }
 }
\ No newline at end of file
@@ -1,248 +1,391 @@
 package com.placideh.rateLimiter.service;
 
 
-import com.placideh.rateLimiter.model.Tier;
 import com.placideh.rateLimiter.model.User;
+import com.placideh.rateLimiter.util.Constants;
+import com.placideh.rateLimiter.service.rateLimit.BucketConfigurationRegistry;
+import com.placideh.rateLimiter.service.rateLimit.BulkRateLimitResult;
+import com.placideh.rateLimiter.service.rateLimit.CompositeTokenBucketStrategy;
 import com.placideh.rateLimiter.service.rateLimit.RateLimitResult;
+import com.placideh.rateLimiter.service.rateLimit.RateLimitStrategy;
+import com.placideh.rateLimiter.service.rateLimit.RateLimitStrategyResolver;
+import com.placideh.rateLimiter.service.rateLimit.ShardedSystemLimiter;
+import com.placideh.rateLimiter.service.rateLimit.SystemTokenLeaseManager;
 import io.github.bucket4j.*;
+import io.github.bucket4j.distributed.proxy.AsyncProxyManager;
 import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.RemoteAsyncBucketBuilder;
+import io.github.bucket4j.distributed.proxy.RemoteBucketBuilder;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Rate Limiter Service using Bucket4j + Redis
  *
  *
- * 1. Window time limits (per-minute)
- * 2. Monthly limits
+ * 1. Window time limits (per-minute) - by the active RateLimitStrategy
+ * 2. Monthly limits - by the active RateLimitStrategy
  * 3.System-wide limits
  * 4. Distributed (Redis)
  * 5.Soft/Hard throttling
+ * 6. Non-blocking variant (checkAllLimitsAsync) on Bucket4j's async proxy manager
  */
 @Slf4j
 @Service
 public class RateLimiterService {
 
+    private static final String SYSTEM_BUCKET_KEY = "system:global";
+
     @Autowired
     private ProxyManager<String> proxyManager;
 
+    @Autowired
+    private AsyncProxyManager<String> asyncProxyManager;
+
+    @Autowired
+    @Qualifier("notificationExecutor")
+    private Executor notificationExecutor;
+
+    @Autowired
+    private BucketConfigurationRegistry configurationRegistry;
+
+    @Autowired
+    private CompositeTokenBucketStrategy compositeStrategy;
+
+    @Autowired
+    private SystemTokenLeaseManager systemTokenLeaseManager;
+
+    @Autowired
+    private ShardedSystemLimiter shardedSystemLimiter;
+
+    @Autowired
+    private RateLimitStrategyResolver strategyResolver;
+
     @Value("${rate-limit.system.enabled:true}")
     private boolean systemWideEnabled;
 
-    @Value("${rate-limit.system.requests-per-second:1000}")
-    private long systemLimitPerSecond;
+    // SINGLE: every request hits system:global, LEASED: spend locally leased batches of system tokens,
+    // SHARDED: split the budget across system:global:{shard} keys
+    @Value("${rate-limit.system.mode:SINGLE}")
+    private String systemMode;
 
-    @Value("${rate-limit.soft-delay-ms:500}")
-    private long softDelayMs;
+    // evaluate system + window + monthly in one atomic Redis script instead of three CAS round trips
+    @Value("${rate-limit.composite.enabled:false}")
+    private boolean compositeEnabled;
+
+    // HTTP notification requests are limited with checkAllLimitsAsync instead of blocking the request thread.
+    // Opt-in: size notificationExecutor for the load first - a saturated pool answers 503
+    @Value("${rate-limit.async.enabled:false}")
+    private boolean asyncEnabled;
+
+    // the builders are stateless - build them once and reuse them for every bucket lookup
+    private RemoteBucketBuilder<String> bucketBuilder;
+    private RemoteAsyncBucketBuilder<String> asyncBucketBuilder;
+
+    @PostConstruct
+    public void init() {
+        bucketBuilder = proxyManager.builder();
+        asyncBucketBuilder = asyncProxyManager.builder();
+    }
+
+    public boolean isAsyncEnabled() {
+        return asyncEnabled;
+    }
 
     /**
      * CHECK ALL LIMITS
-     * Order: System-Wide → Window → Monthly
+     * Order: System-Wide → active strategy (Window → Monthly)
+     *
+     * Never waits for a SOFT throttle delay: a parked request comes back rejected with its
+     * retry attached (RateLimitResult.getSoftRetry), which completes with the final decision.
      */
     public RateLimitResult checkAllLimits(User user) {
         log.debug("Checking rate limits for user: {} (Tier: {})", user.getId(), user.getTier().getName());
 
+        RateLimitStrategy strategy = resolveStrategy();
+
         // check for SYSTEM WIDE
-        if (systemWideEnabled) {
-            RateLimitResult systemResult = checkSystemWideLimit();
+        RateLimitResult systemResult = null;
+        if (systemWideEnabled && !strategy.includesSystemLimit()) {
+            systemResult = checkSystemWideLimit(user);
             if (!systemResult.isAllowed()) {
                 log.warn("SYSTEM-WIDE limit exceeded");
                 return systemResult;
             }
         }
 
-        // Window limit (per-minute)
-        RateLimitResult windowResult = checkWindowLimit(user);
-        if (!windowResult.isAllowed()) {
-            log.warn("WINDOW limit exceeded for user: {}", user.getId());
-            return windowResult;
+        // per-client limits (window + monthly)
+        RateLimitResult clientResult = strategy.checkRateLimit(user);
+        if (clientResult.getSoftRetry() != null) {
+            log.debug("{} limit soft throttled for user: {} - retry parked", clientResult.getLimitType(), user.getId());
+            RateLimitResult systemGrant = systemResult;
+            clientResult.setSoftRetry(clientResult.getSoftRetry()
+                    .thenApply(retryResult -> retryResult.isAllowed() ? withSystemGrant(retryResult, systemGrant) : retryResult));
+            return clientResult;
         }
-
-        // Monthly limit
-        RateLimitResult monthlyResult = checkMonthlyLimit(user);
-        if (!monthlyResult.isAllowed()) {
-            log.warn("MONTHLY limit exceeded for user: {}", user.getId());
-            return monthlyResult;
+        if (!clientResult.isAllowed()) {
+            log.warn("{} limit exceeded for user: {}", clientResult.getLimitType(), user.getId());
+            return clientResult;
         }
 
         log.debug("All rate limit checks PASSED for user: {}", user.getId());
-        return windowResult;
+        return withSystemGrant(clientResult, systemResult);
     }
 
+    /**
+     * CHECK ALL LIMITS (non-blocking)
+     * Same order and results as checkAllLimits, but no thread waits on a Redis round trip
+     */
+    public CompletableFuture<RateLimitResult> checkAllLimitsAsync(User user) {
+        log.debug("Checking rate limits (async) for user: {} (Tier: {})", user.getId(), user.getTier().getName());
 
-    private RateLimitResult checkSystemWideLimit() {
-        String bucketKey = "system:global";
+        RateLimitStrategy strategy = resolveStrategy();
 
-        BucketConfiguration config = BucketConfiguration.builder()
-                .addLimit(Bandwidth.simple(systemLimitPerSecond, Duration.ofSeconds(1)))
-                .build();
+        CompletableFuture<RateLimitResult> systemCheck = systemWideEnabled && !strategy.includesSystemLimit()
+                ? checkSystemWideLimitAsync(user)
+                : CompletableFuture.completedFuture(null);
 
-        Bucket bucket = proxyManager.builder().build(bucketKey, config);
-        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+        return systemCheck.thenCompose(systemResult -> {
+            if (systemResult != null && !systemResult.isAllowed()) {
+                log.warn("SYSTEM-WIDE limit exceeded");
+                return CompletableFuture.completedFuture(systemResult);
+            }
 
-        return RateLimitResult.builder()
-                .allowed(probe.isConsumed())
-                .currentUsage(systemLimitPerSecond - probe.getRemainingTokens())
-                .limit(systemLimitPerSecond)
-                .remainingRequests(probe.getRemainingTokens())
-                .retryAfterSeconds(probe.isConsumed() ? 0 :
-                        Duration.ofNanos(probe.getNanosToWaitForRefill()).toSeconds())
-                .limitType("SYSTEM_WIDE")
-                .algorithmUsed("BUCKET4J")
-                .throttlingLevel(probe.isConsumed() ? "NONE" : "HARD")
-                .throttlingMessage(probe.isConsumed() ?
-                        "System operating normally" :
-                        "System capacity exceeded. Too many requests across all clients.")
-                .build();
+            return strategy.checkRateLimitAsync(user, notificationExecutor).thenApply(clientResult -> {
+                if (!clientResult.isAllowed()) {
+                    log.warn("{} limit exceeded for user: {}", clientResult.getLimitType(), user.getId());
+                } else {
+                    log.debug("All rate limit checks PASSED for user: {}", user.getId());
+                }
+                return clientResult.isAllowed() ? withSystemGrant(clientResult, systemResult) : clientResult;
+            });
+        });
     }
 
+    /**
+     * RESERVE (bulk)
+     * Consumes up to permits requests at once: system-wide first, then the active strategy.
+     * System tokens the strategy did not grant are put back.
+     * One multi-token operation per limit instead of a full check per notification.
+     */
+    public BulkRateLimitResult reserve(User user, long permits) {
+        log.debug("Reserving {} permits for user: {} (Tier: {})", permits, user.getId(), user.getTier().getName());
+
+        RateLimitStrategy strategy = resolveStrategy();
+        boolean chargeSystem = systemWideEnabled && !strategy.includesSystemLimit();
+
+        long systemGranted = permits;
+        ShardedSystemLimiter.ShardGrant shardGrant = null;
+        RateLimitResult systemRejected = null;
+        if (chargeSystem) {
+            if (Constants.SYSTEM_MODE_SHARDED.equalsIgnoreCase(systemMode)) {
+                shardGrant = shardedSystemLimiter.tryConsumeAsMuchAsPossible(permits);
+                systemGranted = shardGrant.getGranted();
+            } else {
+                systemGranted = reserveSystemWideTokens(permits);
+            }
+            if (systemGranted < permits) {
+                log.warn("SYSTEM-WIDE limit granted {} of {} permits", systemGranted, permits);
+                systemRejected = buildSystemRejectedResult();
+            }
+            if (systemGranted == 0) {
+                return new BulkRateLimitResult(permits, 0, null, systemRejected);
+            }
+        }
 
-    private RateLimitResult checkWindowLimit(User user) {
-        Tier tier = user.getTier();
-        long limit = tier.getRequestsPerMinute();
-
-        String bucketKey = String.format("window:user:%s", user.getId());
-
-        BucketConfiguration config = BucketConfiguration.builder()
-                .addLimit(Bandwidth.simple(limit, Duration.ofMinutes(1)))
-                .build();
-
-        Bucket bucket = proxyManager.builder().build(bucketKey, config);
-        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
-
-        // calculate throttling level
-        long softThreshold = (long) (limit * 0.8); // 80%
-        long current = limit - probe.getRemainingTokens();
-        String throttlingLevel = determineThrottlingLevel(current, limit, softThreshold);
+        BulkRateLimitResult clientGrant = strategy.reserve(user, systemGranted);
 
-        // check for soft throttling
-        if (!probe.isConsumed() && "SOFT".equalsIgnoreCase(tier.getThrottleMode())) {
-            return handleSoftThrottle(user, bucketKey, config, tier, limit, current);
+        if (chargeSystem && clientGrant.getGranted() < systemGranted) {
+            refundSystemWideTokens(shardGrant, systemGranted - clientGrant.getGranted());
+        }
+        if (clientGrant.getAdmitted() != null) {
+            clientGrant.getAdmitted().setSystemShardGrant(shardGrant);
         }
 
-        RateLimitResult rateLimitResult = new RateLimitResult();
-
-        rateLimitResult.setAllowed(probe.isConsumed());
-        rateLimitResult.setCurrentUsage(current);
-        rateLimitResult.setLimit(limit);
-        rateLimitResult.setRemainingRequests(probe.getRemainingTokens());
-        rateLimitResult.setLimitType("WINDOW");
-        rateLimitResult.setRetryAfterSeconds(probe.isConsumed() ? 0 :
-                Duration.ofNanos(probe.getNanosToWaitForRefill()).toSeconds());
-        rateLimitResult.setAlgorithmUsed("BUCKET4J");
-        rateLimitResult.setThrottlingLevel(throttlingLevel);
-        rateLimitResult.setThrottlingMessage(getThrottlingMessage(throttlingLevel, current, limit));
+        RateLimitResult rejected = clientGrant.getRejected() != null ? clientGrant.getRejected() : systemRejected;
+        log.debug("Reserved {} of {} permits for user: {}", clientGrant.getGranted(), permits, user.getId());
+        return new BulkRateLimitResult(permits, clientGrant.getGranted(), clientGrant.getAdmitted(), rejected);
+    }
 
-        return rateLimitResult;
+    /**
+     * REFUND (compensation)
+     * Returns the tokens charged for an admitted request whose send failed afterwards:
+     * the system-wide token (unless the strategy charged it itself) and every
+     * per-client limit of the strategy that admitted it
+     */
+    public void refund(User user, RateLimitResult decision) {
+        refund(user, decision, 1);
     }
 
-    private RateLimitResult checkMonthlyLimit(User user) {
-        Tier tier = user.getTier();
-        long limit = tier.getRequestsPerMonth();
+    public void refund(User user, RateLimitResult decision, long permits) {
+        if (decision == null || !decision.isAllowed() || permits <= 0) {
+            return;
+        }
 
-        String bucketKey = String.format("monthly:user:%s", user.getId());
+        RateLimitStrategy strategy = strategyResolver.getStrategy(decision.getAlgorithmUsed());
+        if (strategy == null) {
+            log.warn("Cannot refund user {}: unknown algorithm {}", user.getId(), decision.getAlgorithmUsed());
+            return;
+        }
 
-        BucketConfiguration config = BucketConfiguration.builder()
-                .addLimit(Bandwidth.simple(limit, Duration.ofDays(30)))
-                .build();
+        try {
+            if (systemWideEnabled && !strategy.includesSystemLimit()) {
+                refundSystemWideTokens(decision.getSystemShardGrant(), permits);
+            }
+            strategy.refund(user, permits);
+            log.info("Refunded {} rate limit tokens for user {} ({})", permits, user.getId(), strategy.getStrategyName());
+        } catch (Exception e) {
+            // a failed refund only costs the client one request - never hide the original failure
+            log.error("Failed to refund rate limit tokens for user {}: {}", user.getId(), e.getMessage());
+        }
+    }
 
-        Bucket bucket = proxyManager.builder().build(bucketKey, config);
-        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+    /**
+     * Algorithm recorded with each notification (RATE_LIMIT_ALGORITHM, served from memory)
+     */
+    public String getActiveAlgorithm() {
+        return resolveStrategy().getStrategyName();
+    }
 
-        long softThreshold = (long) (limit * 0.9); // 90%
-        long current = limit - probe.getRemainingTokens();
-        String throttlingLevel = determineThrottlingLevel(current, limit, softThreshold);
+    // rate-limit.composite.enabled pins the composite script, otherwise the runtime switch decides
+    private RateLimitStrategy resolveStrategy() {
+        return compositeEnabled ? compositeStrategy : strategyResolver.getActiveStrategy();
+    }
 
-        RateLimitResult rateLimitResult = new RateLimitResult();
 
-        rateLimitResult.setAllowed(probe.isConsumed());
-        rateLimitResult.setCurrentUsage(current);
-        rateLimitResult.setLimit(limit);
-        rateLimitResult.setRemainingRequests(probe.getRemainingTokens());
-        rateLimitResult.setLimitType("MONTHLY");
-        rateLimitResult.setRetryAfterSeconds(0);
-        rateLimitResult.setAlgorithmUsed("BUCKET4J");
-        rateLimitResult.setRetryAfterSeconds(0);
-        rateLimitResult.setThrottlingLevel(throttlingLevel);
-        rateLimitResult.setThrottlingMessage(getThrottlingMessage(throttlingLevel, current, limit));
+    // SINGLE and LEASED modes - SHARDED keeps the ShardGrant and is handled by reserve
+    private long reserveSystemWideTokens(long permits) {
+        if (Constants.SYSTEM_MODE_LEASED.equalsIgnoreCase(systemMode)) {
+            return systemTokenLeaseManager.tryAcquire(permits);
+        }
+        return bucketBuilder.build(SYSTEM_BUCKET_KEY, configurationRegistry.getSystemConfiguration())
+                .tryConsumeAsMuchAsPossible(permits);
+    }
 
-        return rateLimitResult;
+    private void refundSystemWideTokens(ShardedSystemLimiter.ShardGrant shardGrant, long permits) {
+        if (Constants.SYSTEM_MODE_LEASED.equalsIgnoreCase(systemMode)) {
+            systemTokenLeaseManager.release(permits);
+        } else if (Constants.SYSTEM_MODE_SHARDED.equalsIgnoreCase(systemMode)) {
+            // only the shards that granted the tokens get them back
+            if (shardGrant != null) {
+                shardedSystemLimiter.refund(shardGrant, permits);
+            }
+        } else {
+            bucketBuilder.build(SYSTEM_BUCKET_KEY, configurationRegistry.getSystemConfiguration()).addTokens(permits);
+        }
     }
 
+    private RateLimitResult buildSystemRejectedResult() {
+        long systemLimitPerSecond = configurationRegistry.getSystemLimitPerSecond();
 
-    private RateLimitResult handleSoftThrottle(User user, String bucketKey,
-                                               BucketConfiguration config,
-                                               Tier tier, long limit, long current) {
-        try {
-            log.info("SOFT throttle: Delaying user {} for {}ms", user.getId(), softDelayMs);
-            Thread.sleep(softDelayMs);
+        return RateLimitResult.builder()
+                .allowed(false)
+                .currentUsage(systemLimitPerSecond)
+                .limit(systemLimitPerSecond)
+                .remainingRequests(0)
+                .retryAfterSeconds(1)
+                .limitType("SYSTEM_WIDE")
+                .algorithmUsed("BUCKET4J")
+                .throttlingLevel("HARD")
+                .throttlingMessage("System capacity exceeded. Too many requests across all clients.")
+                .build();
+    }
 
-            // Retry after delay
-            Bucket retryBucket = proxyManager.builder().build(bucketKey, config);
-            ConsumptionProbe retryProbe = retryBucket.tryConsumeAndReturnRemaining(1);
+    private RateLimitResult checkSystemWideLimit(User user) {
+        if (Constants.SYSTEM_MODE_LEASED.equalsIgnoreCase(systemMode)) {
+            return checkLeasedSystemWideLimit();
+        }
 
-            if (retryProbe.isConsumed()) {
-                log.info("SOFT throttle SUCCESS: Request allowed after delay for user {}", user.getId());
+        long systemLimitPerSecond = configurationRegistry.getSystemLimitPerSecond();
 
-                RateLimitResult rateLimitResult = new RateLimitResult();
+        if (Constants.SYSTEM_MODE_SHARDED.equalsIgnoreCase(systemMode)) {
+            return buildShardedSystemResult(shardedSystemLimiter.tryConsume(), systemLimitPerSecond);
+        }
 
-                rateLimitResult.setAllowed(true);
-                rateLimitResult.setCurrentUsage(limit - retryProbe.getRemainingTokens());
-                rateLimitResult.setLimit(limit);
-                rateLimitResult.setRemainingRequests(retryProbe.getRemainingTokens());
-                rateLimitResult.setLimitType("WINDOW");
-                rateLimitResult.setAlgorithmUsed("BUCKET4J");
-                rateLimitResult.setThrottlingLevel("SOFT");
-                rateLimitResult.setThrottlingMessage("Request allowed after soft throttle delay");
+        Bucket bucket = bucketBuilder.build(SYSTEM_BUCKET_KEY, configurationRegistry.getSystemConfiguration());
+        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+        return buildSystemResult(probe, systemLimitPerSecond, probe.getRemainingTokens());
+    }
 
-                return rateLimitResult;
-            }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+    private CompletableFuture<RateLimitResult> checkSystemWideLimitAsync(User user) {
+        if (Constants.SYSTEM_MODE_LEASED.equalsIgnoreCase(systemMode)) {
+            // leased tokens are spent locally - no Redis round trip on the hot path
+            return CompletableFuture.completedFuture(checkLeasedSystemWideLimit());
         }
 
-        // Soft throttle failed - return hard block
-        RateLimitResult rateLimitResult = new RateLimitResult();
-
-        rateLimitResult.setAllowed(true);
-        rateLimitResult.setCurrentUsage(current);
-        rateLimitResult.setLimit(limit);
-        rateLimitResult.setRemainingRequests(0);
-        rateLimitResult.setRetryAfterSeconds(60);
-        rateLimitResult.setLimitType("WINDOW");
-        rateLimitResult.setAlgorithmUsed("BUCKET4J");
-        rateLimitResult.setThrottlingLevel("HARD");
-        rateLimitResult.setThrottlingMessage("Rate limit exceeded even after soft throttle. Retry after 60 seconds.");
+        long systemLimitPerSecond = configurationRegistry.getSystemLimitPerSecond();
 
+        if (Constants.SYSTEM_MODE_SHARDED.equalsIgnoreCase(systemMode)) {
+            return shardedSystemLimiter.tryConsumeAsync()
+                    .thenApply(grant -> buildShardedSystemResult(grant, systemLimitPerSecond));
+        }
 
-        return rateLimitResult;
+        return asyncBucketBuilder.build(SYSTEM_BUCKET_KEY, configurationRegistry.getSystemConfiguration())
+                .tryConsumeAndReturnRemaining(1)
+                .thenApply(probe -> buildSystemResult(probe, systemLimitPerSecond, probe.getRemainingTokens()));
     }
 
+    private RateLimitResult buildShardedSystemResult(ShardedSystemLimiter.ShardGrant grant, long systemLimitPerSecond) {
+        ConsumptionProbe probe = grant.getProbe();
+        // only one shard is observed - scale it up as an estimate of the global remaining
+        long remaining = Math.min(systemLimitPerSecond, probe.getRemainingTokens() * shardedSystemLimiter.getShardCount());
+        RateLimitResult result = buildSystemResult(probe, systemLimitPerSecond, remaining);
+        result.setSystemShardGrant(grant);
+        return result;
+    }
 
-    private String determineThrottlingLevel(long current, long limit, long softThreshold) {
-        if (current >= limit) {
-            return "HARD";
-        } else if (current >= softThreshold) {
-            return "SOFT";
-        } else {
-            return "NONE";
+    // the admitted decision carries the shard grant, so a later refund finds the shards
+    private RateLimitResult withSystemGrant(RateLimitResult clientResult, RateLimitResult systemResult) {
+        if (systemResult != null && systemResult.getSystemShardGrant() != null) {
+            clientResult.setSystemShardGrant(systemResult.getSystemShardGrant());
         }
+        return clientResult;
+    }
+
+    private RateLimitResult buildSystemResult(ConsumptionProbe probe, long systemLimitPerSecond, long remaining) {
+        return RateLimitResult.builder()
+                .allowed(probe.isConsumed())
+                .currentUsage(systemLimitPerSecond - remaining)
+                .limit(systemLimitPerSecond)
+                .remainingRequests(remaining)
+                .retryAfterSeconds(probe.isConsumed() ? 0 :
+                        Duration.ofNanos(probe.getNanosToWaitForRefill()).toSeconds())
+                .limitType("SYSTEM_WIDE")
+                .algorithmUsed("BUCKET4J")
+                .throttlingLevel(probe.isConsumed() ? "NONE" : "HARD")
+                .throttlingMessage(probe.isConsumed() ?
+                        "System operating normally" :
+                        "System capacity exceeded. Too many requests across all clients.")
+                .build();
     }
 
 
-    private String getThrottlingMessage(String level, long current, long limit) {
-        switch (level) {
-            case "HARD":
-                return String.format("Rate limit exceeded (%d/%d). Request blocked.", current, limit);
-            case "SOFT":
-                double percentage = (current * 100.0) / limit;
-                return String.format("Warning: Approaching limit (%.1f%%). Consider slowing down.", percentage);
-            default:
-                return "Normal operation";
-        }
+    private RateLimitResult checkLeasedSystemWideLimit() {
+        long systemLimitPerSecond = configurationRegistry.getSystemLimitPerSecond();
+        boolean allowed = systemTokenLeaseManager.tryAcquire();
+        // global estimate - the local pool alone says nothing about the system-wide limit
+        long remaining = systemTokenLeaseManager.getEstimatedGlobalRemaining(systemLimitPerSecond);
+
+        return RateLimitResult.builder()
+                .allowed(allowed)
+                .currentUsage(systemLimitPerSecond - remaining)
+                .limit(systemLimitPerSecond)
+                .remainingRequests(remaining)
+                .retryAfterSeconds(allowed ? 0 : 1)
+                .limitType("SYSTEM_WIDE")
+                .algorithmUsed("BUCKET4J")
+                .throttlingLevel(allowed ? "NONE" : "HARD")
+                .throttlingMessage(allowed ?
+                        "System operating normally" :
+                        "System capacity exceeded. Too many requests across all clients.")
+                .build();
     }
-}
\ No newline at end of file
+}
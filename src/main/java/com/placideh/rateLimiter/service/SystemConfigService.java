@@ -5,6 +5,8 @@ package com.placideh.rateLimiter.service;
 import com.placideh.rateLimiter.exception.ResourceNotFoundException;
 import com.placideh.rateLimiter.model.SystemConfig;
 import com.placideh.rateLimiter.repository.SystemConfigRepository;
+import com.placideh.rateLimiter.service.cache.SystemConfigCache;
+import com.placideh.rateLimiter.service.rateLimit.RateLimitStrategyResolver;
 import com.placideh.rateLimiter.util.Constants;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -18,40 +20,70 @@ public class SystemConfigService {
     @Autowired
     private SystemConfigRepository systemConfigRepository;
 
+    @Autowired
+    private RateLimitStrategyResolver strategyResolver;
+
+    @Autowired
+    private SystemConfigCache systemConfigCache;
+
+    // reads are served from the in-memory snapshot
     public Map<String, String> getAllConfigs() {
-        Map<String, String> configs = new HashMap<>();
-        systemConfigRepository.findAll().forEach(config ->
-                configs.put(config.getConfigKey(), config.getConfigValue())
-        );
-        return configs;
+        return new HashMap<>(systemConfigCache.getAll());
     }
 
     public String getConfig(String key) {
-        return systemConfigRepository.findByConfigKey(key)
-                .map(SystemConfig::getConfigValue)
+        return systemConfigCache.get(key)
                 .orElseThrow(() -> new ResourceNotFoundException("Config", "key", key));
     }
 
     public void updateConfig(String key, String value, String updatedBy) {
-        SystemConfig config = systemConfigRepository.findByConfigKey(key)
-                .orElseThrow(() -> new ResourceNotFoundException("Config", "key", key));
+        boolean algorithmKey = Constants.CONFIG_RATE_LIMIT_ALGORITHM.equals(key);
+        boolean systemLimitKey = Constants.CONFIG_SYSTEM_LIMIT_PER_SECOND.equals(key);
 
         // Validate algorithm value
-        if ("RATE_LIMIT_ALGORITHM".equals(key)) {
-            if (!Constants.TOKEN_BUCKET.equals(value) && !Constants.FIXED_WINDOW.equals(value)) {
-                throw new IllegalArgumentException(
-                        "Invalid algorithm. Must be TOKEN_BUCKET or FIXED_WINDOW");
-            }
+        if (algorithmKey && !strategyResolver.isSupported(value)) {
+            throw new IllegalArgumentException(
+                    "Invalid algorithm. Must be one of " + strategyResolver.getSupportedAlgorithms());
+        }
+
+        if (systemLimitKey && !isPositiveLong(value)) {
+            throw new IllegalArgumentException("Invalid system limit. Must be a positive number of requests per second");
         }
 
+        // the algorithm and system limit rows are created on first update when they were not seeded
+        SystemConfig config = systemConfigRepository.findByConfigKey(key)
+                .orElseGet(() -> {
+                    if (!algorithmKey && !systemLimitKey) {
+                        throw new ResourceNotFoundException("Config", "key", key);
+                    }
+                    SystemConfig created = new SystemConfig();
+                    created.setConfigKey(key);
+                    created.setDescription(algorithmKey
+                            ? "Active rate limiting algorithm"
+                            : "System-wide limit in requests per second");
+                    return created;
+                });
+
         config.setConfigValue(value);
         config.setUpdatedBy(updatedBy);
         systemConfigRepository.save(config);
+
+        // takes effect immediately on this node, other nodes reload on the invalidation message
+        if (algorithmKey) {
+            strategyResolver.setActiveAlgorithm(value);
+        }
+        systemConfigCache.reloadAndPublish();
     }
 
     public String getCurrentAlgorithm() {
-        return systemConfigRepository.findByConfigKey("RATE_LIMIT_ALGORITHM")
-                .map(SystemConfig::getConfigValue)
-                .orElse(Constants.TOKEN_BUCKET);
+        return systemConfigCache.get(Constants.CONFIG_RATE_LIMIT_ALGORITHM, Constants.TOKEN_BUCKET);
+    }
+
+    private boolean isPositiveLong(String value) {
+        try {
+            return value != null && Long.parseLong(value.trim()) > 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
     }
 }
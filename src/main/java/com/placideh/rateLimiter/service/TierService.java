@@ -5,6 +5,8 @@ import com.placideh.rateLimiter.dto.response.TierResponse;
 import com.placideh.rateLimiter.exception.ResourceNotFoundException;
 import com.placideh.rateLimiter.model.Tier;
 import com.placideh.rateLimiter.repository.TierRepository;
+import com.placideh.rateLimiter.service.cache.ApiKeyCache;
+import com.placideh.rateLimiter.service.rateLimit.BucketConfigurationRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -18,6 +20,12 @@ public class TierService {
     @Autowired
     private TierRepository tierRepository;
 
+    @Autowired
+    private BucketConfigurationRegistry bucketConfigurationRegistry;
+
+    @Autowired
+    private ApiKeyCache apiKeyCache;
+
     public TierResponse createTier(CreateTierRequest request) {
         if (tierRepository.existsByName(request.getName())) {
             throw new IllegalArgumentException("Tier with this name already exists");
@@ -33,6 +41,7 @@ public class TierService {
         tier.setIsActive(true);
 
         tier = tierRepository.save(tier);
+        bucketConfigurationRegistry.rebuild(tier);
         return mapToResponse(tier);
     }
 
@@ -69,6 +78,10 @@ public class TierService {
         }
 
         tier = tierRepository.save(tier);
+        bucketConfigurationRegistry.rebuild(tier);
+
+        // cached users still reference the old tier limits
+        apiKeyCache.evictAll();
         return mapToResponse(tier);
     }
 
@@ -77,6 +90,7 @@ public class TierService {
             throw new ResourceNotFoundException("Tier", "id", id);
         }
         tierRepository.deleteById(id);
+        bucketConfigurationRegistry.remove(id);
     }
 
     private TierResponse mapToResponse(Tier tier) {
@@ -6,18 +6,36 @@ import com.placideh.rateLimiter.exception.ResourceNotFoundException;
 import com.placideh.rateLimiter.model.MonthlyUsage;
 import com.placideh.rateLimiter.model.Tier;
 import com.placideh.rateLimiter.model.User;
+import com.placideh.rateLimiter.repository.ClientUsageView;
 import com.placideh.rateLimiter.repository.MonthlyUsageRepository;
 import com.placideh.rateLimiter.repository.UserRepository;
+import com.placideh.rateLimiter.service.usage.UsageTracker;
 import com.placideh.rateLimiter.util.DateTimeUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class UsageService {
 
+    // sortable fields of getAllClientsUsage -> JPQL expression on the query aliases
+    private static final Map<String, String> SORT_EXPRESSIONS = Map.of(
+            "percentageUsed", "COALESCE(m.totalRequests, 0) * 1.0 / t.requestsPerMonth",
+            "totalRequests", "m.totalRequests",
+            "smsCount", "m.smsCount",
+            "emailCount", "m.emailCount",
+            "rateLimitHits", "m.rateLimitHits",
+            "clientName", "u.username",
+            "tierName", "t.name"
+    );
 
 
     @Autowired
@@ -26,13 +44,17 @@ public class UsageService {
     @Autowired
     private MonthlyUsageRepository monthlyUsageRepository;
 
+    @Autowired
+    private UsageTracker usageTracker;
+
     public UsageResponse getCurrentUsage(String clientId) {
         User client = clientRepository.findById(clientId)
                 .orElseThrow(() -> new ResourceNotFoundException("Client", "id", clientId));
 
         String currentMonth = DateTimeUtil.getCurrentYearMonth();
-        MonthlyUsage usage = monthlyUsageRepository
-                .findByUserIdAndYearMonth(clientId, currentMonth)
+        // live counters when the tracker serves them (usage.tracker=REDIS), otherwise the flushed row
+        MonthlyUsage usage = usageTracker.findCurrentUsage(clientId)
+                .or(() -> monthlyUsageRepository.findByUserIdAndYearMonth(clientId, currentMonth))
                 .orElse(new MonthlyUsage());
 
         Tier tier = client.getTier();
@@ -57,55 +79,61 @@ public class UsageService {
         return usageResponse;
     }
 
+    /**
+     * Last N months of a client, newest first
+     * The database returns only those N rows (LIMIT on the (user_id, year_month DESC) index),
+     * already joined with the client and its tier
+     */
     public List<UsageResponse> getUsageHistory(String clientId, int months) {
-        User client = clientRepository.findById(clientId)
-                .orElseThrow(() -> new ResourceNotFoundException("Client", "id", clientId));
-
-        List<MonthlyUsage> usageList = monthlyUsageRepository
-                .findByUserIdOrderByYearMonthDesc(clientId);
+        Pageable lastMonths = PageRequest.of(0, Math.max(1, months), Sort.by(Sort.Direction.DESC, "yearMonth"));
 
-        return usageList.stream()
-                .limit(months)
-                .map(usage -> mapToResponse(client, usage))
+        return monthlyUsageRepository.findClientUsageByUserId(clientId, lastMonths).stream()
+                .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
-    public List<UsageResponse> getAllClientsUsage() {
+    /**
+     * Current month usage of all clients, one page at a time
+     * One join query per page (plus its count) instead of one user lookup per usage row
+     *
+     * @param sortBy one of SORT_EXPRESSIONS' keys, e.g. percentageUsed
+     */
+    public Page<UsageResponse> getAllClientsUsage(int page, int size, String sortBy, String direction) {
+        String expression = SORT_EXPRESSIONS.get(sortBy);
+        if (expression == null) {
+            throw new IllegalArgumentException("Unsupported sort field: " + sortBy
+                    + ". Supported: " + String.join(", ", SORT_EXPRESSIONS.keySet()));
+        }
+
+        Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction).orElse(Sort.Direction.DESC);
+        // expressions come from the whitelist above, never from the request
+        Sort sort = JpaSort.unsafe(sortDirection, expression).and(JpaSort.unsafe(Sort.Direction.ASC, "m.userId"));
+        Pageable pageable = PageRequest.of(page, size, sort);
+
         String currentMonth = DateTimeUtil.getCurrentYearMonth();
-        List<MonthlyUsage> allUsage = monthlyUsageRepository.findByYearMonth(currentMonth);
-
-        return allUsage.stream()
-                .map(usage -> {
-                    User client = clientRepository.findById(usage.getUserId())
-                            .orElse(null);
-                    return client != null ? mapToResponse(client, usage) : null;
-                })
-                .filter(response -> response != null)
-                .collect(Collectors.toList());
+        return monthlyUsageRepository.findClientUsageByYearMonth(currentMonth, pageable)
+                .map(this::mapToResponse);
     }
 
-    private UsageResponse mapToResponse(User client, MonthlyUsage usage) {
-        Tier tier = client.getTier();
-        long totalRequests = usage.getTotalRequests() != null ? usage.getTotalRequests() : 0;
-        long remainingRequests = tier.getRequestsPerMonth() - totalRequests;
-        double percentageUsed = (totalRequests * 100.0) / tier.getRequestsPerMonth();
+    private UsageResponse mapToResponse(ClientUsageView view) {
+        long totalRequests = view.getTotalRequests() != null ? view.getTotalRequests() : 0;
+        long remainingRequests = view.getRequestsPerMonth() - totalRequests;
+        double percentageUsed = (totalRequests * 100.0) / view.getRequestsPerMonth();
 
         UsageResponse usageResponse = new UsageResponse();
-        usageResponse.setClientId(client.getId());
-        usageResponse.setClientName(client.getUsername());
-        usageResponse.setTierName(tier.getName());
-        usageResponse.setCurrentMonth(usage.getYearMonth());
+        usageResponse.setClientId(view.getClientId());
+        usageResponse.setClientName(view.getClientName());
+        usageResponse.setTierName(view.getTierName());
+        usageResponse.setCurrentMonth(view.getYearMonth());
         usageResponse.setTotalRequests(totalRequests);
-        usageResponse.setSmsCount(usage.getSmsCount() !=null ? usage.getSmsCount() : 0);
-        usageResponse.setEmailCount(usage.getEmailCount() !=null ? usage.getEmailCount() : 0);
-        usageResponse.setRateLimitHits(usage.getRateLimitHits() !=null ? usage.getRateLimitHits() : 0);
-        usageResponse.setRequestsPerMonth(tier.getRequestsPerMonth());
-        usageResponse.setRequestsPerMinute(tier.getRequestsPerMinute());
+        usageResponse.setSmsCount(view.getSmsCount() != null ? view.getSmsCount() : 0);
+        usageResponse.setEmailCount(view.getEmailCount() != null ? view.getEmailCount() : 0);
+        usageResponse.setRateLimitHits(view.getRateLimitHits() != null ? view.getRateLimitHits() : 0);
+        usageResponse.setRequestsPerMonth(view.getRequestsPerMonth());
+        usageResponse.setRequestsPerMinute(view.getRequestsPerMinute());
         usageResponse.setRemainingRequests(Math.max(0, remainingRequests));
         usageResponse.setPercentageUsed(Math.min(100.0, percentageUsed));
 
-
-
         return usageResponse;
     }
 }
@@ -11,6 +11,12 @@ import com.placideh.rateLimiter.model.Tier;
 import com.placideh.rateLimiter.model.User;
 import com.placideh.rateLimiter.repository.TierRepository;
 import com.placideh.rateLimiter.repository.UserRepository;
+import com.placideh.rateLimiter.service.cache.AccountStatusCache;
+import com.placideh.rateLimiter.service.cache.ApiKeyBloomFilter;
+import com.placideh.rateLimiter.service.cache.ApiKeyCache;
+import com.placideh.rateLimiter.util.ApiKeyGenerator;
+import com.placideh.rateLimiter.util.ApiKeyHasher;
+import com.placideh.rateLimiter.util.TransactionCallbacks;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,6 +37,18 @@ public class UserService {
     @Autowired
     private TierRepository tierRepository;
 
+    @Autowired
+    private ApiKeyCache apiKeyCache;
+
+    @Autowired
+    private AccountStatusCache accountStatusCache;
+
+    @Autowired
+    private ApiKeyBloomFilter apiKeyBloomFilter;
+
+    @Autowired
+    private ApiKeyGenerator apiKeyGenerator;
+
 
 
     public List<UserResponse> getAllUsers() {
@@ -45,9 +63,14 @@ public class UserService {
         return mapToResponse(user);
     }
 
-    public User findApiKey(String apiKey) {
-        return userRepository.findByApiKey(apiKey)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "id", apiKey));
+    // takes the digest (ApiKeyHasher.hash), looked up through the unique index on api_key_hash
+    public User findApiKey(String apiKeyHash) {
+        return apiKeyCache.get(apiKeyHash, hash -> userRepository.findByApiKeyHash(hash)
+                .orElseThrow(() -> {
+                    apiKeyBloomFilter.recordFalsePositive();
+                    // never echo the key (or its digest) into messages and logs
+                    return new ResourceNotFoundException("User not found for the given API key");
+                }));
     }
 
     public UserResponse getUserByUsername(String username) {
@@ -69,6 +92,8 @@ public class UserService {
             user.setEmail(request.getEmail());
         }
         user = userRepository.save(user);
+        String userId = user.getId();
+        TransactionCallbacks.afterCommit(() -> apiKeyCache.evictUser(userId));
         return mapToResponse(user);
     }
 
@@ -103,18 +128,49 @@ public class UserService {
         user.setTier(newTier);
         user = userRepository.save(user);
 
+        // cached entry still holds the old tier limits - evicted once the new tier is committed
+        TransactionCallbacks.afterCommit(() -> apiKeyCache.evictUser(userId));
+
         return mapToResponse(user);
     }
 
 
 
 
+    /**
+     * Replaces the API key of a user and returns the new key - the only time it is shown,
+     * since only its hash is stored. The old key stops working once the transaction commits.
+     */
+    @Transactional
+    public UserResponse rotateApiKey(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+
+        String plainApiKey = apiKeyGenerator.generateApiKey();
+        user.setApiKey(null);
+        user.setApiKeyHash(ApiKeyHasher.hash(plainApiKey));
+        user = userRepository.save(user);
+
+        String userId = user.getId();
+        // the cached entry is keyed by the old key - dropped once the new hash is committed
+        TransactionCallbacks.afterCommit(() -> apiKeyCache.evictUser(userId));
+        apiKeyBloomFilter.add(user.getApiKeyHash());
+        logger.info("API key rotated for user {}", username);
+
+        UserResponse response = mapToResponse(user);
+        response.setApiKey(plainApiKey);
+        return response;
+    }
+
     @Transactional
     public void deleteUser(String id) {
         if (!userRepository.existsById(id)) {
             throw new ResourceNotFoundException("User", "id", id);
         }
         userRepository.deleteById(id);
+        TransactionCallbacks.afterCommit(() -> apiKeyCache.evictUser(id));
+        // evicting before commit would let a concurrent request re-cache the still visible active row
+        TransactionCallbacks.afterCommit(() -> accountStatusCache.evict(id));
     }
 
 
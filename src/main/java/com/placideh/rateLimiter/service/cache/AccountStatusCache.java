@@ -0,0 +1,118 @@
+package com.placideh.rateLimiter.service.cache;
+
+import com.placideh.rateLimiter.repository.AccountStatusView;
+import com.placideh.rateLimiter.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Account Status Cache
+ * Short-TTL cache of (isActive, role) per user id, checked by JwtAuthenticationFilter
+ * so a deactivated, deleted or re-roled account loses access without a users query per request
+ *
+ * Entries are evicted by UserService when a user changes; the TTL bounds staleness
+ * for changes made on other nodes or outside the app.
+ */
+@Slf4j
+@Component
+public class AccountStatusCache {
+
+    private static final AccountStatus MISSING = new AccountStatus(false, null);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${cache.account-status.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Value("${cache.account-status.max-size:10000}")
+    private int maxSize;
+
+    private final Map<String, CacheEntry> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Current status of the user; a user that no longer exists is reported as inactive
+     */
+    public AccountStatus get(String userId) {
+        long now = System.nanoTime();
+        CacheEntry entry = entries.get(userId);
+        if (entry != null && entry.expiresAtNanos - now > 0) {
+            hits.increment();
+            return entry.status;
+        }
+
+        misses.increment();
+        AccountStatus status = userRepository.findAccountStatusById(userId)
+                .map(AccountStatusCache::toStatus)
+                .orElse(MISSING);
+
+        if (entries.size() >= maxSize) {
+            // TTL is short - dropping everything is cheaper than tracking the oldest entry
+            entries.clear();
+        }
+        entries.put(userId, new CacheEntry(status, now + ttlSeconds * 1_000_000_000L));
+        return status;
+    }
+
+    public void evict(String userId) {
+        if (userId != null) {
+            entries.remove(userId);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", entries.size());
+        stats.put("ttlSeconds", ttlSeconds);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", total == 0 ? 0.0 : (hitCount * 1.0) / total);
+        return stats;
+    }
+
+    private static AccountStatus toStatus(AccountStatusView view) {
+        return new AccountStatus(Boolean.TRUE.equals(view.getActive()), view.getRole());
+    }
+
+    public static final class AccountStatus {
+        private final boolean active;
+        private final String role;
+
+        private AccountStatus(boolean active, String role) {
+            this.active = active;
+            this.role = role;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public String getRole() {
+            return role;
+        }
+    }
+
+    private static final class CacheEntry {
+        private final AccountStatus status;
+        private final long expiresAtNanos;
+
+        private CacheEntry(AccountStatus status, long expiresAtNanos) {
+            this.status = status;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.placideh.rateLimiter.service.cache;
+
+import com.placideh.rateLimiter.model.User;
+import com.placideh.rateLimiter.repository.UserRepository;
+import com.placideh.rateLimiter.util.ApiKeyHasher;
+import com.placideh.rateLimiter.util.BloomFilter;
+import com.placideh.rateLimiter.util.TransactionCallbacks;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * API Key Bloom Filter
+ * In-memory Bloom filter of every valid API key hash, checked by RateLimitInterceptor
+ * before the key is looked up, so garbage and brute-force keys never reach Postgres
+ *
+ * 1. Rebuilt from users.api_key_hash at startup and every rebuild-ms; a rebuild first
+ *    backfills the hash of users that still have a plaintext key (e.g. seed data) and
+ *    clears the plaintext
+ * 2. A registration adds its hash after the transaction commits and publishes it on the
+ *    "api-key-filter:add" Redis channel, so every node knows the key right away
+ * 3. The periodic rebuild covers a lost pub/sub message and drops deleted keys
+ *
+ * Fails open: until the first rebuild succeeded every key passes and the database decides.
+ * A false positive (~false-positive-rate of unknown keys) only costs one indexed lookup.
+ */
+@Slf4j
+@Component
+public class ApiKeyBloomFilter implements MessageListener {
+
+    public static final String ADD_CHANNEL = "api-key-filter:add";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Value("${security.api-key.filter.enabled:true}")
+    private boolean enabled;
+
+    // lower bound for the filter size - the filter is sized for twice the current key count when larger
+    @Value("${security.api-key.filter.expected-keys:100000}")
+    private long expectedKeys;
+
+    @Value("${security.api-key.filter.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    // filter being rebuilt - adds go to both so none is lost by the swap
+    private BloomFilter building;
+    private final Object swapLock = new Object();
+
+    private volatile long lastRebuildAtMillis;
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+    private final LongAdder failedRebuilds = new LongAdder();
+    private final LongAdder backfilled = new LongAdder();
+    private final LongAdder addsPublished = new LongAdder();
+    private final LongAdder addsReceived = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            log.info("API key Bloom filter disabled");
+            return;
+        }
+        rebuild();
+        listenerContainer.addMessageListener(this, new ChannelTopic(ADD_CHANNEL));
+    }
+
+    /**
+     * False only when the key hash is definitely not a valid API key
+     */
+    public boolean mightContain(String apiKeyHash) {
+        BloomFilter current = filter;
+        if (current == null) {
+            return true;
+        }
+        checks.increment();
+        if (current.mightContain(hash1(apiKeyHash), hash2(apiKeyHash))) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Adds a new key hash (registration / key rotation) on this node and publishes it to the others.
+     * Inside a transaction this happens after commit, so a concurrent rebuild cannot miss the key.
+     */
+    public void add(String apiKeyHash) {
+        if (!enabled) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> addAndPublish(apiKeyHash));
+    }
+
+    /**
+     * Called by the API key lookup when a key passed the filter but does not exist
+     */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    /**
+     * Backfills missing hashes (clearing plaintext keys), then builds a new filter from every stored hash and swaps it in.
+     * Keeps the previous filter if the database cannot be read.
+     */
+    @Scheduled(fixedDelayString = "${security.api-key.filter.rebuild-ms:600000}",
+            initialDelayString = "${security.api-key.filter.rebuild-ms:600000}")
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            backfillMissingHashes();
+
+            long keyCount = userRepository.countByApiKeyHashIsNotNull();
+            BloomFilter next = BloomFilter.create(Math.max(expectedKeys, keyCount * 2), falsePositiveRate);
+            synchronized (swapLock) {
+                building = next;
+            }
+
+            List<String> hashes = userRepository.findAllApiKeyHashes();
+            for (String hash : hashes) {
+                next.put(hash1(hash), hash2(hash));
+            }
+
+            synchronized (swapLock) {
+                filter = next;
+                building = null;
+            }
+            lastRebuildAtMillis = System.currentTimeMillis();
+            rebuilds.increment();
+            log.info("API key Bloom filter rebuilt: {} keys, {} bits, {} hash functions",
+                    hashes.size(), next.getBitCount(), next.getHashCount());
+        } catch (Exception e) {
+            synchronized (swapLock) {
+                building = null;
+            }
+            failedRebuilds.increment();
+            log.error("Failed to rebuild API key Bloom filter - keeping previous filter: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String apiKeyHash = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (apiKeyHash.length() != ApiKeyHasher.HASH_LENGTH) {
+            return;
+        }
+        // also receives this node's own adds - putting a hash twice is harmless
+        addsReceived.increment();
+        addLocal(apiKeyHash);
+    }
+
+    public Map<String, Object> getStats() {
+        BloomFilter current = filter;
+        long checkCount = checks.sum();
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("ready", current != null);
+        stats.put("keys", current == null ? 0 : current.getInsertions());
+        stats.put("bits", current == null ? 0 : current.getBitCount());
+        stats.put("hashFunctions", current == null ? 0 : current.getHashCount());
+        stats.put("expectedFalsePositiveRate", current == null ? 0.0 : current.expectedFalsePositiveRate());
+        stats.put("checks", checkCount);
+        stats.put("rejected", rejected.sum());
+        stats.put("rejectedRatio", checkCount == 0 ? 0.0 : (rejected.sum() * 1.0) / checkCount);
+        stats.put("falsePositives", falsePositives.sum());
+        stats.put("rebuilds", rebuilds.sum());
+        stats.put("failedRebuilds", failedRebuilds.sum());
+        stats.put("backfilled", backfilled.sum());
+        stats.put("addsPublished", addsPublished.sum());
+        stats.put("addsReceived", addsReceived.sum());
+        stats.put("lastRebuildAtMillis", lastRebuildAtMillis);
+        return stats;
+    }
+
+    private void addAndPublish(String apiKeyHash) {
+        addLocal(apiKeyHash);
+        try {
+            redisTemplate.convertAndSend(ADD_CHANNEL, apiKeyHash);
+            addsPublished.increment();
+        } catch (Exception e) {
+            // other nodes pick the key up on their next rebuild
+            log.error("Failed to publish API key filter add: {}", e.getMessage());
+        }
+    }
+
+    private void addLocal(String apiKeyHash) {
+        long h1 = hash1(apiKeyHash);
+        long h2 = hash2(apiKeyHash);
+        synchronized (swapLock) {
+            if (filter != null) {
+                filter.put(h1, h2);
+            }
+            if (building != null) {
+                building.put(h1, h2);
+            }
+        }
+    }
+
+    private void backfillMissingHashes() {
+        List<User> users = userRepository.findByApiKeyIsNotNull();
+        if (users.isEmpty()) {
+            return;
+        }
+        for (User user : users) {
+            if (user.getApiKeyHash() == null) {
+                user.setApiKeyHash(ApiKeyHasher.hash(user.getApiKey()));
+            }
+            // only the digest is kept - the plaintext key is not recoverable from the database
+            user.setApiKey(null);
+        }
+        userRepository.saveAll(users);
+        backfilled.add(users.size());
+        log.info("Backfilled API key hash and cleared the plaintext key for {} users", users.size());
+    }
+
+    // the key hash is already a uniform SHA-256 digest - its first 128 bits are the two filter hashes
+    private static long hash1(String apiKeyHash) {
+        return Long.parseUnsignedLong(apiKeyHash, 0, 16, 16);
+    }
+
+    private static long hash2(String apiKeyHash) {
+        return Long.parseUnsignedLong(apiKeyHash, 16, 32, 16) | 1;
+    }
+}
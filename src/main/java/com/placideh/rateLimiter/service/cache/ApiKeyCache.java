@@ -0,0 +1,143 @@
+package com.placideh.rateLimiter.service.cache;
+
+import com.placideh.rateLimiter.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * API Key Cache
+ * Bounded, TTL-based in-memory cache of resolved User (+ EAGER Tier) keyed by the
+ * API key digest (ApiKeyHasher.hash) - plaintext keys are never held in memory here
+ *
+ * Used by RateLimitInterceptor so that notification traffic does not hit
+ * Postgres on every request. Entries are evicted by UserService whenever a
+ * user changes; the TTL bounds staleness for changes made outside the app.
+ */
+@Slf4j
+@Component
+public class ApiKeyCache {
+
+    private final Map<String, CacheEntry> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Value("${cache.api-key.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${cache.api-key.max-size:10000}")
+    private int maxSize;
+
+    /**
+     * Returns the cached user for the API key digest, loading it with the given loader on a miss.
+     * The loader may throw (e.g. ResourceNotFoundException) - nothing is cached in that case.
+     */
+    public User get(String apiKeyHash, Function<String, User> loader) {
+        long now = System.nanoTime();
+        CacheEntry entry = entries.get(apiKeyHash);
+
+        if (entry != null) {
+            if (entry.expiresAtNanos - now > 0) {
+                hits.increment();
+                return entry.user;
+            }
+            // expired - drop it and reload
+            if (entries.remove(apiKeyHash, entry)) {
+                evictions.increment();
+            }
+        }
+
+        misses.increment();
+        User user = loader.apply(apiKeyHash);
+
+        if (user != null) {
+            if (entries.size() >= maxSize) {
+                evictExpiredOrOldest(now);
+            }
+            entries.put(apiKeyHash, new CacheEntry(user, now + ttlSeconds * 1_000_000_000L));
+        }
+
+        return user;
+    }
+
+    public void evict(String apiKeyHash) {
+        if (apiKeyHash != null && entries.remove(apiKeyHash) != null) {
+            evictions.increment();
+        }
+    }
+
+    public void evictUser(String userId) {
+        entries.entrySet().removeIf(e -> {
+            boolean match = userId.equals(e.getValue().user.getId());
+            if (match) {
+                evictions.increment();
+            }
+            return match;
+        });
+    }
+
+    public void evictAll() {
+        int size = entries.size();
+        entries.clear();
+        evictions.add(size);
+        log.info("API key cache cleared ({} entries)", size);
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", entries.size());
+        stats.put("maxSize", maxSize);
+        stats.put("ttlSeconds", ttlSeconds);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.sum());
+        stats.put("hitRatio", total == 0 ? 0.0 : (hitCount * 1.0) / total);
+        return stats;
+    }
+
+    // make room for a new entry: drop expired entries first, otherwise the one closest to expiry
+    private void evictExpiredOrOldest(long now) {
+        String oldestKey = null;
+        long oldestExpiry = Long.MAX_VALUE;
+
+        Iterator<Map.Entry<String, CacheEntry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, CacheEntry> e = iterator.next();
+            long expiresAt = e.getValue().expiresAtNanos;
+            if (expiresAt - now <= 0) {
+                iterator.remove();
+                evictions.increment();
+            } else if (oldestKey == null || expiresAt - oldestExpiry < 0) {
+                oldestKey = e.getKey();
+                oldestExpiry = expiresAt;
+            }
+        }
+
+        if (entries.size() >= maxSize && oldestKey != null && entries.remove(oldestKey) != null) {
+            evictions.increment();
+        }
+    }
+
+    private static final class CacheEntry {
+        private final User user;
+        private final long expiresAtNanos;
+
+        private CacheEntry(User user, long expiresAtNanos) {
+            this.user = user;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.placideh.rateLimiter.service.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Invalid API Key Cache
+ * Bounded, TTL-based negative cache of API key hashes that were looked up and not found
+ *
+ * Catches the unknown keys that pass the Bloom filter (false positives) and keys
+ * revoked since the last filter rebuild, so repeating a bad key costs one map lookup
+ * instead of a database query. Stores hashes only, never the submitted key.
+ *
+ * When full, expired entries are purged (at most once per second), then arbitrary
+ * entries are dropped - under a flood of distinct keys the cache stays bounded
+ * and the per-address failure limiter does the rest.
+ */
+@Slf4j
+@Component
+public class InvalidApiKeyCache {
+
+    private static final long PURGE_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final Map<String, Long> entries = new ConcurrentHashMap<>();
+    private final AtomicLong lastPurgeNanos = new AtomicLong(System.nanoTime());
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Value("${cache.invalid-api-key.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${cache.invalid-api-key.max-size:100000}")
+    private int maxSize;
+
+    public boolean contains(String apiKeyHash) {
+        Long expiresAt = entries.get(apiKeyHash);
+        if (expiresAt != null) {
+            if (expiresAt - System.nanoTime() > 0) {
+                hits.increment();
+                return true;
+            }
+            if (entries.remove(apiKeyHash, expiresAt)) {
+                evictions.increment();
+            }
+        }
+        misses.increment();
+        return false;
+    }
+
+    public void put(String apiKeyHash) {
+        long now = System.nanoTime();
+        if (entries.size() >= maxSize) {
+            makeRoom(now);
+        }
+        entries.put(apiKeyHash, now + ttlSeconds * 1_000_000_000L);
+    }
+
+    public void evict(String apiKeyHash) {
+        if (apiKeyHash != null && entries.remove(apiKeyHash) != null) {
+            evictions.increment();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", entries.size());
+        stats.put("maxSize", maxSize);
+        stats.put("ttlSeconds", ttlSeconds);
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("evictions", evictions.sum());
+        return stats;
+    }
+
+    private void makeRoom(long now) {
+        long lastPurge = lastPurgeNanos.get();
+        if (now - lastPurge > PURGE_INTERVAL_NANOS && lastPurgeNanos.compareAndSet(lastPurge, now)) {
+            entries.entrySet().removeIf(e -> {
+                boolean expired = e.getValue() - now <= 0;
+                if (expired) {
+                    evictions.increment();
+                }
+                return expired;
+            });
+        }
+
+        Iterator<String> iterator = entries.keySet().iterator();
+        while (entries.size() >= maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+}
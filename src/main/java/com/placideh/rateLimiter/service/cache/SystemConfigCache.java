@@ -0,0 +1,166 @@
+package com.placideh.rateLimiter.service.cache;
+
+import com.placideh.rateLimiter.model.SystemConfig;
+import com.placideh.rateLimiter.repository.SystemConfigRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * System Config Cache
+ * Immutable in-memory snapshot of every system_config row, swapped atomically on reload
+ *
+ * 1. Reads never touch Postgres
+ * 2. SystemConfigService.updateConfig reloads this node and publishes on the
+ *    "system-config:invalidate" Redis channel; every other node reloads when it receives it
+ * 3. A slow periodic reload (system-config.reload-ms) covers a lost pub/sub message
+ *    (Redis pub/sub is fire-and-forget)
+ *
+ * Components that derive state from the config (e.g. RateLimitStrategyResolver)
+ * register a listener and get every new snapshot.
+ */
+@Slf4j
+@Component
+public class SystemConfigCache implements MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "system-config:invalidate";
+
+    // lets a node ignore its own invalidation - it reloaded before publishing
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Autowired
+    private SystemConfigRepository systemConfigRepository;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    private volatile Map<String, String> snapshot = Map.of();
+    private volatile long lastReloadAtMillis;
+
+    private final List<Consumer<Map<String, String>>> listeners = new CopyOnWriteArrayList<>();
+
+    private final LongAdder reloads = new LongAdder();
+    private final LongAdder failedReloads = new LongAdder();
+    private final LongAdder invalidationsPublished = new LongAdder();
+    private final LongAdder invalidationsReceived = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        reload();
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    public Map<String, String> getAll() {
+        return snapshot;
+    }
+
+    public Optional<String> get(String key) {
+        return Optional.ofNullable(snapshot.get(key));
+    }
+
+    public String get(String key, String defaultValue) {
+        return snapshot.getOrDefault(key, defaultValue);
+    }
+
+    /**
+     * Registers a listener and calls it with the current snapshot right away
+     */
+    public void addListener(Consumer<Map<String, String>> listener) {
+        listeners.add(listener);
+        listener.accept(snapshot);
+    }
+
+    /**
+     * Re-reads system_config and swaps the snapshot. Keeps the previous snapshot if the read fails.
+     */
+    @Scheduled(fixedDelayString = "${system-config.reload-ms:60000}", initialDelayString = "${system-config.reload-ms:60000}")
+    public synchronized void reload() {
+        try {
+            Map<String, String> loaded = new HashMap<>();
+            for (SystemConfig config : systemConfigRepository.findAll()) {
+                if (config.getConfigValue() != null) {
+                    loaded.put(config.getConfigKey(), config.getConfigValue());
+                }
+            }
+
+            Map<String, String> next = Map.copyOf(loaded);
+            boolean changed = !next.equals(snapshot);
+            snapshot = next;
+            lastReloadAtMillis = System.currentTimeMillis();
+            reloads.increment();
+
+            if (changed) {
+                log.info("System config snapshot reloaded: {} keys", next.size());
+                notifyListeners(next);
+            }
+        } catch (Exception e) {
+            failedReloads.increment();
+            log.error("Failed to reload system config - keeping previous snapshot: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reloads this node and tells every other node to reload
+     */
+    public void reloadAndPublish() {
+        reload();
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId);
+            invalidationsPublished.increment();
+        } catch (Exception e) {
+            // other nodes still converge on their periodic reload
+            log.error("Failed to publish system config invalidation: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String sender = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (nodeId.equals(sender)) {
+            return;
+        }
+        invalidationsReceived.increment();
+        reload();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", snapshot.size());
+        stats.put("reloads", reloads.sum());
+        stats.put("failedReloads", failedReloads.sum());
+        stats.put("invalidationsPublished", invalidationsPublished.sum());
+        stats.put("invalidationsReceived", invalidationsReceived.sum());
+        stats.put("lastReloadAtMillis", lastReloadAtMillis);
+        return stats;
+    }
+
+    private void notifyListeners(Map<String, String> next) {
+        for (Consumer<Map<String, String>> listener : listeners) {
+            try {
+                listener.accept(next);
+            } catch (Exception e) {
+                log.error("System config listener failed: {}", e.getMessage());
+            }
+        }
+    }
+}
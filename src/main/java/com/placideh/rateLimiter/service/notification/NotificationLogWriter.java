@@ -0,0 +1,178 @@
+package com.placideh.rateLimiter.service.notification;
+
+import com.placideh.rateLimiter.model.NotificationLog;
+import com.placideh.rateLimiter.repository.NotificationLogRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind Notification Log Writer
+ * Takes NotificationLog inserts off the request path: requests enqueue, one writer thread
+ * drains the queue and persists up to batch-size rows with one batched saveAll
+ *
+ * 1. Ids are assigned in the application, so responses can return them before the insert
+ * 2. Backpressure: a full queue makes the caller wait up to offer-timeout-ms, then write the row itself
+ * 3. A failed batch is retried row by row so one bad row does not drop the others
+ * 4. On shutdown the writer is stopped and everything still queued is flushed
+ *
+ * A row is only lost when the JVM dies before it was flushed (at most queue-capacity rows).
+ */
+@Slf4j
+@Component
+public class NotificationLogWriter {
+
+    @Autowired
+    private NotificationLogRepository notificationLogRepository;
+
+    @Value("${notification.log.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${notification.log.batch-size:500}")
+    private int batchSize;
+
+    // how long the writer waits for more rows before flushing a partial batch
+    @Value("${notification.log.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${notification.log.offer-timeout-ms:50}")
+    private long offerTimeoutMs;
+
+    private BlockingQueue<NotificationLog> queue;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder callerWrites = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writerThread = new Thread(this::drainLoop, "notification-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Notification log writer started: queue={}, batchSize={}, flushInterval={}ms",
+                queueCapacity, batchSize, flushIntervalMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        writerThread.interrupt();
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // whatever the writer did not get to
+        flushRemaining();
+        log.info("Notification log writer stopped: {} rows written, {} failed", written.sum(), failed.sum());
+    }
+
+    /**
+     * Queues a log row for insertion. Never throws: a row that cannot be written is counted and logged.
+     */
+    public void enqueue(NotificationLog notificationLog) {
+        enqueued.increment();
+        if (running && offer(notificationLog)) {
+            return;
+        }
+
+        // queue full (or shutting down) - the caller pays for the insert instead of dropping the row
+        callerWrites.increment();
+        writeBatch(List.of(notificationLog));
+    }
+
+    public void enqueueAll(Collection<NotificationLog> notificationLogs) {
+        notificationLogs.forEach(this::enqueue);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("queued", queue.size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("enqueued", enqueued.sum());
+        stats.put("written", written.sum());
+        stats.put("batches", batches.sum());
+        stats.put("callerWrites", callerWrites.sum());
+        stats.put("failed", failed.sum());
+        return stats;
+    }
+
+    private boolean offer(NotificationLog notificationLog) {
+        try {
+            return queue.offer(notificationLog, offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void drainLoop() {
+        List<NotificationLog> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                NotificationLog first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                // shutdown - the remaining rows are flushed by shutdown()
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Notification log writer error: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flushRemaining() {
+        List<NotificationLog> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<NotificationLog> batch) {
+        try {
+            notificationLogRepository.saveAll(batch);
+            written.add(batch.size());
+            batches.increment();
+        } catch (RuntimeException e) {
+            log.warn("Batched insert of {} notification logs failed, retrying row by row: {}", batch.size(), e.getMessage());
+            for (NotificationLog notificationLog : batch) {
+                try {
+                    notificationLogRepository.save(notificationLog);
+                    written.increment();
+                } catch (RuntimeException rowError) {
+                    failed.increment();
+                    log.error("Dropped notification log {} for client {}: {}",
+                            notificationLog.getId(), notificationLog.getClientId(), rowError.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.placideh.rateLimiter.service.rateLimit;
+
+import com.placideh.rateLimiter.model.Tier;
+import com.placideh.rateLimiter.service.cache.SystemConfigCache;
+import com.placideh.rateLimiter.util.Constants;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bucket Configuration Registry
+ * Holds immutable, prebuilt Bucket4j configurations so the hot path does not
+ * allocate a new BucketConfiguration/Bandwidth on every request
+ *
+ * 1. System-wide configuration: rate-limit.system.requests-per-second, overridden by the
+ *    SYSTEM_LIMIT_PER_SECOND system_config row and rebuilt whenever that row changes
+ * 2. Per-tier window (per-minute) and monthly configurations (rebuilt on tier create/update)
+ */
+@Slf4j
+@Component
+public class BucketConfigurationRegistry {
+
+    @Autowired
+    private SystemConfigCache systemConfigCache;
+
+    @Value("${rate-limit.system.requests-per-second:1000}")
+    private long initialSystemLimitPerSecond;
+
+    private volatile SystemConfiguration systemConfiguration;
+
+    private final Map<String, TierConfigurations> tierConfigurations = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        updateSystemLimit(initialSystemLimitPerSecond);
+        systemConfigCache.addListener(this::onConfigChanged);
+    }
+
+    public BucketConfiguration getSystemConfiguration() {
+        return systemConfiguration.configuration;
+    }
+
+    public long getSystemLimitPerSecond() {
+        return systemConfiguration.limitPerSecond;
+    }
+
+    public synchronized void updateSystemLimit(long limitPerSecond) {
+        SystemConfiguration current = systemConfiguration;
+        if (current != null && current.limitPerSecond == limitPerSecond) {
+            return;
+        }
+
+        BucketConfiguration configuration = BucketConfiguration.builder()
+                .addLimit(Bandwidth.simple(limitPerSecond, Duration.ofSeconds(1)))
+                .build();
+
+        systemConfiguration = new SystemConfiguration(limitPerSecond, configuration);
+        log.info("System-wide bucket configuration built: {} requests/second", limitPerSecond);
+    }
+
+    /**
+     * Returns the prebuilt configurations for the tier.
+     * Falls back to building them if the tier is unknown or its limits no longer match.
+     */
+    public TierConfigurations forTier(Tier tier) {
+        TierConfigurations configurations = tierConfigurations.get(tier.getId());
+        if (configurations != null && configurations.matches(tier)) {
+            return configurations;
+        }
+        // request path - tier changed on another node or was never built here
+        log.debug("Bucket configurations missing or stale for tier {}, building", tier.getName());
+        return build(tier);
+    }
+
+    public TierConfigurations rebuild(Tier tier) {
+        TierConfigurations configurations = build(tier);
+        log.info("Bucket configurations built for tier {}: {}/minute, {}/month",
+                tier.getName(), tier.getRequestsPerMinute(), tier.getRequestsPerMonth());
+        return configurations;
+    }
+
+    public void remove(String tierId) {
+        tierConfigurations.remove(tierId);
+    }
+
+    private TierConfigurations build(Tier tier) {
+        TierConfigurations configurations = new TierConfigurations(
+                tier.getRequestsPerMinute(), tier.getRequestsPerMonth());
+        tierConfigurations.put(tier.getId(), configurations);
+        return configurations;
+    }
+
+    // a missing row falls back to rate-limit.system.requests-per-second
+    private void onConfigChanged(Map<String, String> config) {
+        String value = config.get(Constants.CONFIG_SYSTEM_LIMIT_PER_SECOND);
+        if (value == null) {
+            updateSystemLimit(initialSystemLimitPerSecond);
+            return;
+        }
+        try {
+            long limitPerSecond = Long.parseLong(value.trim());
+            if (limitPerSecond <= 0) {
+                throw new NumberFormatException("not positive");
+            }
+            updateSystemLimit(limitPerSecond);
+        } catch (NumberFormatException e) {
+            log.warn("Invalid system limit '{}' in system config - keeping {} requests/second",
+                    value, getSystemLimitPerSecond());
+        }
+    }
+
+
+    private static final class SystemConfiguration {
+        private final long limitPerSecond;
+        private final BucketConfiguration configuration;
+
+        private SystemConfiguration(long limitPerSecond, BucketConfiguration configuration) {
+            this.limitPerSecond = limitPerSecond;
+            this.configuration = configuration;
+        }
+    }
+
+    public static final class TierConfigurations {
+        private final long requestsPerMinute;
+        private final long requestsPerMonth;
+        private final BucketConfiguration window;
+        private final BucketConfiguration monthly;
+
+        private TierConfigurations(long requestsPerMinute, long requestsPerMonth) {
+            this.requestsPerMinute = requestsPerMinute;
+            this.requestsPerMonth = requestsPerMonth;
+            this.window = BucketConfiguration.builder()
+                    .addLimit(Bandwidth.simple(requestsPerMinute, Duration.ofMinutes(1)))
+                    .build();
+            this.monthly = BucketConfiguration.builder()
+                    .addLimit(Bandwidth.simple(requestsPerMonth, Duration.ofDays(30)))
+                    .build();
+        }
+
+        private boolean matches(Tier tier) {
+            return requestsPerMinute == tier.getRequestsPerMinute()
+                    && requestsPerMonth == tier.getRequestsPerMonth();
+        }
+
+        public long getRequestsPerMinute() {
+            return requestsPerMinute;
+        }
+
+        public long getRequestsPerMonth() {
+            return requestsPerMonth;
+        }
+
+        public BucketConfiguration getWindow() {
+            return window;
+        }
+
+        public BucketConfiguration getMonthly() {
+            return monthly;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.placideh.rateLimiter.service.rateLimit;
+
+/**
+ * Result of a multi-permit reservation ("you may send K of N")
+ *
+ * admitted - decision for the granted permits (null when nothing was granted)
+ * rejected - the limit that cut the grant short (null when everything was granted)
+ */
+public class BulkRateLimitResult {
+
+    private final long requested;
+    private final long granted;
+    private final RateLimitResult admitted;
+    private final RateLimitResult rejected;
+
+    public BulkRateLimitResult(long requested, long granted, RateLimitResult admitted, RateLimitResult rejected) {
+        this.requested = requested;
+        this.granted = granted;
+        this.admitted = admitted;
+        this.rejected = rejected;
+    }
+
+    public long getRequested() {
+        return requested;
+    }
+
+    public long getGranted() {
+        return granted;
+    }
+
+    public long getDenied() {
+        return requested - granted;
+    }
+
+    public RateLimitResult getAdmitted() {
+        return admitted;
+    }
+
+    public RateLimitResult getRejected() {
+        return rejected;
+    }
+
+    public boolean isFullyGranted() {
+        return granted == requested;
+    }
+
+    /**
+     * Single-permit view: the admitted decision when everything was granted, otherwise the rejection
+     */
+    public RateLimitResult toDecision() {
+        return isFullyGranted() ? admitted : rejected;
+    }
+}
@@ -0,0 +1,313 @@
+package com.placideh.rateLimiter.service.rateLimit;
+
+import com.placideh.rateLimiter.model.Tier;
+import com.placideh.rateLimiter.model.User;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Composite Token Bucket Strategy
+ * Evaluates System-Wide → Window → Monthly token buckets atomically in ONE Redis round trip
+ *
+ * The check runs as a server-side Lua script (scripts/composite_token_bucket.lua):
+ * all buckets are refilled and checked before any token is taken, so a request
+ * rejected by its window or monthly bucket never burns shared system capacity.
+ *
+ * Bucket state is kept in its own hash keys (composite:*), separate from the
+ * Bucket4j state. All keys of one check are touched by one script, so this mode
+ * expects a single Redis node (the keys do not share a Redis Cluster hash slot).
+ *
+ * SOFT tiers get the same soft throttling as the token bucket strategy: a request
+ * rejected by its window is parked for the tier's soft delay and checked once more.
+ * An allowed request reports the client bucket (window or monthly) with the least room left.
+ */
+@Slf4j
+@Component
+public class CompositeTokenBucketStrategy implements RateLimitStrategy {
+
+    public static final String STRATEGY_NAME = "COMPOSITE_TOKEN_BUCKET";
+
+    private static final String SYSTEM_KEY = "composite:system:global";
+    private static final String WINDOW_KEY_PREFIX = "composite:window:user:";
+    private static final String MONTHLY_KEY_PREFIX = "composite:monthly:user:";
+
+    private static final String SYSTEM_PERIOD_MS = String.valueOf(Duration.ofSeconds(1).toMillis());
+    private static final String WINDOW_PERIOD_MS = String.valueOf(Duration.ofMinutes(1).toMillis());
+    private static final String MONTHLY_PERIOD_MS = String.valueOf(Duration.ofDays(30).toMillis());
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private BucketConfigurationRegistry configurationRegistry;
+
+    @Autowired
+    private SoftThrottleScheduler softThrottleScheduler;
+
+    // runs the soft throttle retry - the script call is blocking and must not run on the scheduler thread
+    @Autowired
+    @Qualifier("notificationExecutor")
+    private Executor softRetryExecutor;
+
+    @Value("${rate-limit.system.enabled:true}")
+    private boolean systemWideEnabled;
+
+    // fallback for tiers without their own soft_delay_ms
+    @Value("${rate-limit.soft-delay-ms:500}")
+    private long softDelayMs;
+
+    private final StrategyStats stats = new StrategyStats();
+
+    @SuppressWarnings("rawtypes")
+    private DefaultRedisScript<List> script;
+    private DefaultRedisScript<Long> refundScript;
+
+    @PostConstruct
+    public void init() {
+        script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource("scripts/composite_token_bucket.lua"));
+        script.setResultType(List.class);
+
+        refundScript = new DefaultRedisScript<>();
+        refundScript.setLocation(new ClassPathResource("scripts/composite_refund.lua"));
+        refundScript.setResultType(Long.class);
+    }
+
+    @Override
+    public RateLimitResult checkRateLimit(User client) {
+        RateLimitResult result = reserve(client, 1).toDecision();
+        if (isSoftThrottled(client, result)) {
+            // the caller gets the parked retry, this thread does not wait for it
+            CompletableFuture<RateLimitResult> retry = handleSoftThrottle(client, result, softRetryExecutor);
+            if (retry.isDone()) {
+                // not parked (queue full) - already rejected
+                return retry.join();
+            }
+            result.setSoftRetry(retry);
+        }
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<RateLimitResult> checkRateLimitAsync(User client, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> reserve(client, 1).toDecision(), executor)
+                .thenCompose(result -> isSoftThrottled(client, result)
+                        ? handleSoftThrottle(client, result, executor)
+                        : CompletableFuture.completedFuture(result));
+    }
+
+    @Override
+    public BulkRateLimitResult reserve(User client, long permits) {
+        Tier tier = client.getTier();
+        long systemLimit = configurationRegistry.getSystemLimitPerSecond();
+        long windowLimit = tier.getRequestsPerMinute();
+        long monthlyLimit = tier.getRequestsPerMonth();
+
+        List<String> keys = new ArrayList<>(3);
+        List<String> args = new ArrayList<>(7);
+        List<String> limitTypes = new ArrayList<>(3);
+        List<Long> limits = new ArrayList<>(3);
+
+        if (systemWideEnabled) {
+            addBucket(keys, args, limitTypes, limits, SYSTEM_KEY, systemLimit, SYSTEM_PERIOD_MS, "SYSTEM_WIDE");
+        }
+        addBucket(keys, args, limitTypes, limits, WINDOW_KEY_PREFIX + client.getId(), windowLimit, WINDOW_PERIOD_MS, "WINDOW");
+        addBucket(keys, args, limitTypes, limits, MONTHLY_KEY_PREFIX + client.getId(), monthlyLimit, MONTHLY_PERIOD_MS, "MONTHLY");
+        args.add(String.valueOf(permits));
+
+        @SuppressWarnings("unchecked")
+        List<Long> reply = redisTemplate.execute(script, keys, args.toArray());
+
+        long granted = reply.get(0);
+        stats.recordRedisCalls(1);
+        stats.recordCheck(granted == permits);
+        int blockingIndex = reply.get(1).intValue();
+        long waitMs = reply.get(2);
+
+        RateLimitResult rejected = null;
+        if (blockingIndex > 0) {
+            int index = blockingIndex - 1;
+            String limitType = limitTypes.get(index);
+            long limit = limits.get(index);
+            long remaining = reply.get(3 + index);
+
+            log.warn("{} limit exceeded for user: {} (composite check)", limitType, client.getId());
+            rejected = buildRejectedResult(limitType, limit, remaining, waitMs);
+        }
+
+        if (granted == 0) {
+            return new BulkRateLimitResult(permits, 0, null, rejected);
+        }
+
+        long windowRemaining = reply.get(3 + limitTypes.indexOf("WINDOW"));
+        long monthlyRemaining = reply.get(3 + limitTypes.indexOf("MONTHLY"));
+        RateLimitResult admitted = buildAllowedResult(windowRemaining, windowLimit, monthlyRemaining, monthlyLimit);
+
+        return new BulkRateLimitResult(permits, granted, admitted, rejected);
+    }
+
+    @Override
+    public String getStrategyName() {
+        return STRATEGY_NAME;
+    }
+
+    @Override
+    public void refund(User client, long permits) {
+        Tier tier = client.getTier();
+        List<String> keys = new ArrayList<>(3);
+        List<String> args = new ArrayList<>(4);
+
+        if (systemWideEnabled) {
+            keys.add(SYSTEM_KEY);
+            args.add(String.valueOf(configurationRegistry.getSystemLimitPerSecond()));
+        }
+        keys.add(WINDOW_KEY_PREFIX + client.getId());
+        args.add(String.valueOf(tier.getRequestsPerMinute()));
+        keys.add(MONTHLY_KEY_PREFIX + client.getId());
+        args.add(String.valueOf(tier.getRequestsPerMonth()));
+        args.add(String.valueOf(permits));
+
+        redisTemplate.execute(refundScript, keys, args.toArray());
+        stats.recordRedisCalls(1);
+        stats.recordRefund();
+    }
+
+    @Override
+    public List<String> stateKeys(String clientId) {
+        return List.of(SYSTEM_KEY, WINDOW_KEY_PREFIX + clientId, MONTHLY_KEY_PREFIX + clientId);
+    }
+
+    @Override
+    public StrategyStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public boolean includesSystemLimit() {
+        return systemWideEnabled;
+    }
+
+    private boolean isSoftThrottled(User client, RateLimitResult result) {
+        return !result.isAllowed()
+                && "WINDOW".equals(result.getLimitType())
+                && "SOFT".equalsIgnoreCase(client.getTier().getThrottleMode());
+    }
+
+    /**
+     * SOFT throttle: park the request for the tier's soft delay, then run the composite check once more.
+     * The retry runs on the given executor; a saturated executor turns into a hard rejection.
+     */
+    private CompletableFuture<RateLimitResult> handleSoftThrottle(User client, RateLimitResult rejected, Executor executor) {
+        long delayMs = resolveSoftDelayMs(client.getTier());
+        log.info("SOFT throttle: Delaying user {} for {}ms (composite)", client.getId(), delayMs);
+
+        CompletableFuture<RateLimitResult> retry = softThrottleScheduler.park(delayMs, () -> {
+            try {
+                return CompletableFuture.supplyAsync(() -> {
+                    RateLimitResult retryResult = reserve(client, 1).toDecision();
+                    if (retryResult.isAllowed()) {
+                        log.info("SOFT throttle SUCCESS: Request allowed after delay for user {}", client.getId());
+                        retryResult.setThrottlingLevel("SOFT");
+                        retryResult.setThrottlingMessage("Request allowed after soft throttle delay");
+                    }
+                    return retryResult;
+                }, executor);
+            } catch (RejectedExecutionException e) {
+                return CompletableFuture.completedFuture(rejected);
+            }
+        });
+
+        if (retry == null) {
+            log.warn("SOFT throttle queue full - rejecting user {} without delay", client.getId());
+            return CompletableFuture.completedFuture(rejected);
+        }
+        return retry;
+    }
+
+    // per-tier delay, the global property is only used when the tier has none
+    private long resolveSoftDelayMs(Tier tier) {
+        Long tierDelayMs = tier.getSoftDelayMs();
+        return tierDelayMs != null && tierDelayMs > 0 ? tierDelayMs : softDelayMs;
+    }
+
+    // reports the client bucket with the least room left; either bucket being near its limit makes it SOFT
+    private RateLimitResult buildAllowedResult(long windowRemaining, long windowLimit,
+                                               long monthlyRemaining, long monthlyLimit) {
+        String windowLevel = ThrottlingLevels.determine(windowLimit - windowRemaining, windowLimit,
+                (long) (windowLimit * ThrottlingLevels.WINDOW_SOFT_RATIO));
+        String monthlyLevel = ThrottlingLevels.determine(monthlyLimit - monthlyRemaining, monthlyLimit,
+                (long) (monthlyLimit * ThrottlingLevels.MONTHLY_SOFT_RATIO));
+
+        boolean monthlyTighter = monthlyRemaining < windowRemaining;
+        String limitType = monthlyTighter ? "MONTHLY" : "WINDOW";
+        long limit = monthlyTighter ? monthlyLimit : windowLimit;
+        long remaining = monthlyTighter ? monthlyRemaining : windowRemaining;
+        long current = limit - remaining;
+
+        // a granted request is never HARD, even when it took the last token
+        boolean windowNear = !"NONE".equals(windowLevel);
+        boolean monthlyNear = !"NONE".equals(monthlyLevel);
+        String throttlingLevel = windowNear || monthlyNear ? "SOFT" : "NONE";
+        String message = windowNear || !monthlyNear
+                ? ThrottlingLevels.message(throttlingLevel, windowLimit - windowRemaining, windowLimit)
+                : ThrottlingLevels.message(throttlingLevel, monthlyLimit - monthlyRemaining, monthlyLimit);
+
+        RateLimitResult rateLimitResult = new RateLimitResult();
+
+        rateLimitResult.setAllowed(true);
+        rateLimitResult.setCurrentUsage(current);
+        rateLimitResult.setLimit(limit);
+        rateLimitResult.setRemainingRequests(remaining);
+        rateLimitResult.setRetryAfterSeconds(0);
+        rateLimitResult.setLimitType(limitType);
+        rateLimitResult.setAlgorithmUsed(STRATEGY_NAME);
+        rateLimitResult.setThrottlingLevel(throttlingLevel);
+        rateLimitResult.setThrottlingMessage(message);
+
+        return rateLimitResult;
+    }
+
+    private void addBucket(List<String> keys, List<String> args, List<String> limitTypes, List<Long> limits,
+                           String key, long capacity, String periodMs, String limitType) {
+        keys.add(key);
+        args.add(String.valueOf(capacity));
+        args.add(periodMs);
+        limitTypes.add(limitType);
+        limits.add(capacity);
+    }
+
+    private RateLimitResult buildRejectedResult(String limitType, long limit, long remaining, long waitMs) {
+        long current = limit - remaining;
+        boolean monthly = "MONTHLY".equals(limitType);
+
+        RateLimitResult rateLimitResult = new RateLimitResult();
+
+        rateLimitResult.setAllowed(false);
+        rateLimitResult.setCurrentUsage(current);
+        rateLimitResult.setLimit(limit);
+        rateLimitResult.setRemainingRequests(remaining);
+        rateLimitResult.setRetryAfterSeconds(monthly ? 0 : Duration.ofMillis(waitMs).toSeconds());
+        rateLimitResult.setLimitType(limitType);
+        rateLimitResult.setAlgorithmUsed(STRATEGY_NAME);
+        rateLimitResult.setThrottlingLevel("HARD");
+        rateLimitResult.setThrottlingMessage("SYSTEM_WIDE".equals(limitType)
+                ? "System capacity exceeded. Too many requests across all clients."
+                : ThrottlingLevels.message("HARD", current, limit));
+
+        return rateLimitResult;
+    }
+}
@@ -0,0 +1,185 @@
+package com.placideh.rateLimiter.service.rateLimit;
+
+import com.placideh.rateLimiter.model.Tier;
+import com.placideh.rateLimiter.model.User;
+import com.placideh.rateLimiter.util.Constants;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Fixed Window Strategy
+ * Counts requests per client in fixed windows with one Redis INCR per window key
+ *
+ * 1. Window key: fw:{<id>}:window:<epochMinute>, expires at the end of the minute
+ * 2. Monthly key: fw:{<id>}:monthly:<yyyy-MM>, expires at the end of the calendar month
+ *
+ * The {<id>} hash tag keeps all keys of a client in one Redis Cluster slot, which the
+ * multi-key script requires (otherwise CROSSSLOT).
+ *
+ * Both counters are checked and incremented in one script call (scripts/fixed_window.lua),
+ * so a check is a single round trip with no compare-and-set retries. Only admitted
+ * requests are counted; several permits can be reserved at once with a partial grant.
+ *
+ * Unlike the token bucket, a client can send up to 2x its per-minute limit around
+ * a window boundary, and SOFT tiers are not delayed (a retry inside the same
+ * window cannot succeed).
+ */
+@Slf4j
+@Component
+public class FixedWindowStrategy implements RateLimitStrategy {
+
+    public static final String STRATEGY_NAME = Constants.FIXED_WINDOW;
+
+    // fw:{<id>}:... - the client id is the hash tag
+    private static final String KEY_PREFIX = "fw:{";
+
+    private static final long WINDOW_MS = Duration.ofMinutes(1).toMillis();
+    // keep a key a little longer than its window so clock skew between nodes does not reset it early
+    private static final long EXPIRY_SLACK_MS = Duration.ofSeconds(5).toMillis();
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    private final StrategyStats stats = new StrategyStats();
+
+    @SuppressWarnings("rawtypes")
+    private DefaultRedisScript<List> script;
+    private DefaultRedisScript<Long> refundScript;
+
+    @PostConstruct
+    public void init() {
+        script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource("scripts/fixed_window.lua"));
+        script.setResultType(List.class);
+
+        refundScript = new DefaultRedisScript<>();
+        refundScript.setLocation(new ClassPathResource("scripts/refund_counters.lua"));
+        refundScript.setResultType(Long.class);
+    }
+
+    @Override
+    public RateLimitResult checkRateLimit(User client) {
+        return reserve(client, 1).toDecision();
+    }
+
+    @Override
+    public BulkRateLimitResult reserve(User client, long permits) {
+        Tier tier = client.getTier();
+        long windowLimit = tier.getRequestsPerMinute();
+        long monthlyLimit = tier.getRequestsPerMonth();
+
+        long now = System.currentTimeMillis();
+        long windowId = now / WINDOW_MS;
+        long windowRemainingMs = (windowId + 1) * WINDOW_MS - now;
+
+        YearMonth month = YearMonth.now(ZoneOffset.UTC);
+        long monthRemainingMs = monthEndMillis(month) - now;
+
+        List<String> keys = List.of(windowKey(client.getId(), windowId), monthlyKey(client.getId(), month));
+
+        @SuppressWarnings("unchecked")
+        List<Long> reply = redisTemplate.execute(script, keys,
+                String.valueOf(windowLimit), String.valueOf(windowRemainingMs + EXPIRY_SLACK_MS),
+                String.valueOf(monthlyLimit), String.valueOf(monthRemainingMs + EXPIRY_SLACK_MS),
+                String.valueOf(permits));
+
+        long granted = reply.get(0);
+        int blockingIndex = reply.get(1).intValue();
+        long windowCount = reply.get(2);
+        long monthlyCount = reply.get(3);
+
+        stats.recordRedisCalls(1);
+        stats.recordCheck(granted == permits);
+
+        RateLimitResult admitted = granted > 0
+                ? buildResult(true, windowCount, windowLimit, "WINDOW", 0, ThrottlingLevels.WINDOW_SOFT_RATIO)
+                : null;
+
+        RateLimitResult rejected = null;
+        if (blockingIndex == 1) {
+            log.warn("WINDOW limit exceeded for user: {} (fixed window)", client.getId());
+            rejected = buildResult(false, windowCount, windowLimit, "WINDOW",
+                    Math.max(1, Duration.ofMillis(windowRemainingMs).toSeconds()),
+                    ThrottlingLevels.WINDOW_SOFT_RATIO);
+        } else if (blockingIndex == 2) {
+            log.warn("MONTHLY limit exceeded for user: {} (fixed window)", client.getId());
+            rejected = buildResult(false, monthlyCount, monthlyLimit, "MONTHLY", 0,
+                    ThrottlingLevels.MONTHLY_SOFT_RATIO);
+        }
+
+        return new BulkRateLimitResult(permits, granted, admitted, rejected);
+    }
+
+    @Override
+    public String getStrategyName() {
+        return STRATEGY_NAME;
+    }
+
+    // decrements the counters of the current windows - a request admitted just before a
+    // window rolled over is not refunded into the new window
+    @Override
+    public void refund(User client, long permits) {
+        long windowId = System.currentTimeMillis() / WINDOW_MS;
+        YearMonth month = YearMonth.now(ZoneOffset.UTC);
+
+        redisTemplate.execute(refundScript,
+                List.of(windowKey(client.getId(), windowId), monthlyKey(client.getId(), month)),
+                String.valueOf(permits));
+        stats.recordRedisCalls(1);
+        stats.recordRefund();
+    }
+
+    @Override
+    public List<String> stateKeys(String clientId) {
+        return List.of(windowKey(clientId, System.currentTimeMillis() / WINDOW_MS),
+                monthlyKey(clientId, YearMonth.now(ZoneOffset.UTC)));
+    }
+
+    @Override
+    public StrategyStats getStats() {
+        return stats;
+    }
+
+    static long monthEndMillis(YearMonth month) {
+        return month.plusMonths(1).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private String windowKey(String clientId, long windowId) {
+        return KEY_PREFIX + clientId + "}:window:" + windowId;
+    }
+
+    private String monthlyKey(String clientId, YearMonth month) {
+        return KEY_PREFIX + clientId + "}:monthly:" + month;
+    }
+
+    private RateLimitResult buildResult(boolean allowed, long count, long limit, String limitType,
+                                        long retryAfterSeconds, double softRatio) {
+        long current = Math.min(count, limit);
+        long softThreshold = (long) (limit * softRatio);
+        String throttlingLevel = allowed ? ThrottlingLevels.determine(current, limit, softThreshold) : "HARD";
+
+        RateLimitResult rateLimitResult = new RateLimitResult();
+
+        rateLimitResult.setAllowed(allowed);
+        rateLimitResult.setCurrentUsage(current);
+        rateLimitResult.setLimit(limit);
+        rateLimitResult.setRemainingRequests(Math.max(0, limit - count));
+        rateLimitResult.setRetryAfterSeconds(retryAfterSeconds);
+        rateLimitResult.setLimitType(limitType);
+        rateLimitResult.setAlgorithmUsed(STRATEGY_NAME);
+        rateLimitResult.setThrottlingLevel(throttlingLevel);
+        rateLimitResult.setThrottlingMessage(ThrottlingLevels.message(throttlingLevel, current, limit));
+
+        return rateLimitResult;
+    }
+}
@@ -0,0 +1,159 @@
+package com.placideh.rateLimiter.service.rateLimit;
+
+import com.placideh.rateLimiter.model.Tier;
+import com.placideh.rateLimiter.model.User;
+import com.placideh.rateLimiter.util.Constants;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GCRA Strategy (Generic Cell Rate Algorithm)
+ * Stores one theoretical arrival time (TAT) per limit and client instead of a bucket state
+ *
+ * 1. Window key: gcra:{<id>}:window - requestsPerMinute per minute, burst of requestsPerMinute
+ * 2. Monthly key: gcra:{<id>}:monthly - requestsPerMonth per 30 days (same period as the token bucket)
+ *
+ * The {<id>} hash tag keeps both keys in one Redis Cluster slot, which gcra.lua and
+ * gcra_refund.lua require (otherwise CROSSSLOT).
+ *
+ * Both limits are decided in one script call (scripts/gcra.lua). The value is a single
+ * integer, and the key expires as soon as the client is back to its full burst, so idle
+ * clients hold no Redis memory at all. It admits the same traffic as the token bucket
+ * (GCRA is its "virtual scheduling" equivalent).
+ */
+@Slf4j
+@Component
+public class GcraStrategy implements RateLimitStrategy {
+
+    public static final String STRATEGY_NAME = Constants.GCRA;
+
+    // gcra:{<id>}:... - the client id is the hash tag
+    private static final String KEY_PREFIX = "gcra:{";
+    private static final String WINDOW_KEY_SUFFIX = "}:window";
+    private static final String MONTHLY_KEY_SUFFIX = "}:monthly";
+
+    private static final String WINDOW_PERIOD_MICROS = String.valueOf(TimeUnit.MINUTES.toMicros(1));
+    private static final String MONTHLY_PERIOD_MICROS = String.valueOf(TimeUnit.DAYS.toMicros(30));
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    private final StrategyStats stats = new StrategyStats();
+
+    @SuppressWarnings("rawtypes")
+    private DefaultRedisScript<List> script;
+    private DefaultRedisScript<Long> refundScript;
+
+    @PostConstruct
+    public void init() {
+        script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource("scripts/gcra.lua"));
+        script.setResultType(List.class);
+
+        refundScript = new DefaultRedisScript<>();
+        refundScript.setLocation(new ClassPathResource("scripts/gcra_refund.lua"));
+        refundScript.setResultType(Long.class);
+    }
+
+    @Override
+    public RateLimitResult checkRateLimit(User client) {
+        return reserve(client, 1).toDecision();
+    }
+
+    @Override
+    public BulkRateLimitResult reserve(User client, long permits) {
+        Tier tier = client.getTier();
+        long windowLimit = tier.getRequestsPerMinute();
+        long monthlyLimit = tier.getRequestsPerMonth();
+
+        @SuppressWarnings("unchecked")
+        List<Long> reply = redisTemplate.execute(script, stateKeys(client.getId()),
+                String.valueOf(windowLimit), WINDOW_PERIOD_MICROS,
+                String.valueOf(monthlyLimit), MONTHLY_PERIOD_MICROS,
+                String.valueOf(permits));
+
+        long granted = reply.get(0);
+        int blockingIndex = reply.get(1).intValue();
+        long retryAfterMicros = reply.get(2);
+        long windowRemaining = reply.get(3);
+        long monthlyRemaining = reply.get(4);
+
+        stats.recordRedisCalls(1);
+        stats.recordCheck(granted == permits);
+
+        RateLimitResult admitted = granted > 0
+                ? buildResult(true, windowRemaining, windowLimit, "WINDOW", 0, ThrottlingLevels.WINDOW_SOFT_RATIO)
+                : null;
+
+        RateLimitResult rejected = null;
+        if (blockingIndex == 1) {
+            log.warn("WINDOW limit exceeded for user: {} (GCRA)", client.getId());
+            long retryAfterSeconds = Math.max(1, (retryAfterMicros + 999_999) / 1_000_000);
+            rejected = buildResult(false, windowRemaining, windowLimit, "WINDOW", retryAfterSeconds,
+                    ThrottlingLevels.WINDOW_SOFT_RATIO);
+        } else if (blockingIndex == 2) {
+            log.warn("MONTHLY limit exceeded for user: {} (GCRA)", client.getId());
+            rejected = buildResult(false, monthlyRemaining, monthlyLimit, "MONTHLY", 0,
+                    ThrottlingLevels.MONTHLY_SOFT_RATIO);
+        }
+
+        return new BulkRateLimitResult(permits, granted, admitted, rejected);
+    }
+
+    @Override
+    public String getStrategyName() {
+        return STRATEGY_NAME;
+    }
+
+    @Override
+    public void refund(User client, long permits) {
+        Tier tier = client.getTier();
+
+        redisTemplate.execute(refundScript, stateKeys(client.getId()),
+                String.valueOf(tier.getRequestsPerMinute()), WINDOW_PERIOD_MICROS,
+                String.valueOf(tier.getRequestsPerMonth()), MONTHLY_PERIOD_MICROS,
+                String.valueOf(permits));
+        stats.recordRedisCalls(1);
+        stats.recordRefund();
+    }
+
+    @Override
+    public List<String> stateKeys(String clientId) {
+        return List.of(KEY_PREFIX + clientId + WINDOW_KEY_SUFFIX, KEY_PREFIX + clientId + MONTHLY_KEY_SUFFIX);
+    }
+
+    @Override
+    public StrategyStats getStats() {
+        return stats;
+    }
+
+    // usage is derived from the remaining burst, as with the token bucket probe
+    private RateLimitResult buildResult(boolean allowed, long remaining, long limit, String limitType,
+                                        long retryAfterSeconds, double softRatio) {
+        long current = limit - remaining;
+        long softThreshold = (long) (limit * softRatio);
+        String throttlingLevel = allowed ? ThrottlingLevels.determine(current, limit, softThreshold) : "HARD";
+
+        RateLimitResult rateLimitResult = new RateLimitResult();
+
+        rateLimitResult.setAllowed(allowed);
+        rateLimitResult.setCurrentUsage(current);
+        rateLimitResult.setLimit(limit);
+        rateLimitResult.setRemainingRequests(remaining);
+        rateLimitResult.setRetryAfterSeconds(retryAfterSeconds);
+        rateLimitResult.setLimitType(limitType);
+        rateLimitResult.setAlgorithmUsed(STRATEGY_NAME);
+        rateLimitResult.setThrottlingLevel(throttlingLevel);
+        rateLimitResult.setThrottlingMessage(ThrottlingLevels.message(throttlingLevel, current, limit));
+
+        return rateLimitResult;
+    }
+}
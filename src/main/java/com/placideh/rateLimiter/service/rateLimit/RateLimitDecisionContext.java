@@ -0,0 +1,70 @@
+package com.placideh.rateLimiter.service.rateLimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Request-scoped rate limit decision
+ * Lets a decision taken by RateLimitInterceptor be reused by NotificationService
+ * instead of consuming a second set of tokens for the same HTTP request
+ *
+ * A stored decision is handed out once: the first notification of the request
+ * uses it, further batch items are reserved in bulk (RateLimiterService.reserve). Callers
+ * outside an HTTP request (scheduled jobs, queues) find no decision and are checked.
+ *
+ * A SOFT throttled request is stored as its pending retry instead (storePending): the
+ * endpoint composes on it and sends once the retry has decided, no thread waits meanwhile.
+ */
+public final class RateLimitDecisionContext {
+
+    private static final String ATTRIBUTE = "rateLimitResult";
+    private static final String CLIENT_ATTRIBUTE = "rateLimitClientId";
+    private static final String PENDING_ATTRIBUTE = "rateLimitSoftRetry";
+
+    private RateLimitDecisionContext() {
+    }
+
+    public static void store(HttpServletRequest request, String clientId, RateLimitResult result) {
+        request.setAttribute(ATTRIBUTE, result);
+        request.setAttribute(CLIENT_ATTRIBUTE, clientId);
+    }
+
+    public static void storePending(HttpServletRequest request, CompletableFuture<RateLimitResult> softRetry) {
+        request.setAttribute(PENDING_ATTRIBUTE, softRetry);
+    }
+
+    /**
+     * The parked SOFT throttle retry of this request, or null when the interceptor decided right away
+     */
+    @SuppressWarnings("unchecked")
+    public static CompletableFuture<RateLimitResult> pending(HttpServletRequest request) {
+        Object softRetry = request.getAttribute(PENDING_ATTRIBUTE);
+        return softRetry instanceof CompletableFuture ? (CompletableFuture<RateLimitResult>) softRetry : null;
+    }
+
+    /**
+     * Returns the allowed decision stored for this client in the current request and removes it,
+     * or null when there is none (no HTTP request, already used, or taken for another client)
+     */
+    public static RateLimitResult consume(String clientId) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+
+        Object result = attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        Object storedClientId = attributes.getAttribute(CLIENT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (!(result instanceof RateLimitResult) || !clientId.equals(storedClientId)) {
+            return null;
+        }
+
+        attributes.removeAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        attributes.removeAttribute(CLIENT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+
+        RateLimitResult decision = (RateLimitResult) result;
+        return decision.isAllowed() ? decision : null;
+    }
+}
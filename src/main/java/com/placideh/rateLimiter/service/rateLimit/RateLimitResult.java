@@ -1,9 +1,12 @@
 package com.placideh.rateLimiter.service.rateLimit;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import lombok.Builder;
 
+import java.util.concurrent.CompletableFuture;
+
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -22,6 +25,13 @@ public class RateLimitResult {
 
     private String throttlingMessage;
 
+    // SHARDED system mode: the shard tokens behind this admission, so a refund returns them there
+    private ShardedSystemLimiter.ShardGrant systemShardGrant;
+
+    // SOFT throttle: the parked retry of this rejection, completes with the final decision.
+    // Set on blocking checks so the caller can wait without holding its thread.
+    private CompletableFuture<RateLimitResult> softRetry;
+
 
     public boolean isAllowed() {
         return allowed;
@@ -59,6 +69,15 @@ public class RateLimitResult {
         return throttlingMessage;
     }
 
+    public ShardedSystemLimiter.ShardGrant getSystemShardGrant() {
+        return systemShardGrant;
+    }
+
+    @JsonIgnore
+    public CompletableFuture<RateLimitResult> getSoftRetry() {
+        return softRetry;
+    }
+
 
 
     public void setAllowed(boolean allowed) {
@@ -96,4 +115,12 @@ public class RateLimitResult {
     public void setThrottlingMessage(String throttlingMessage) {
         this.throttlingMessage = throttlingMessage;
     }
+
+    public void setSystemShardGrant(ShardedSystemLimiter.ShardGrant systemShardGrant) {
+        this.systemShardGrant = systemShardGrant;
+    }
+
+    public void setSoftRetry(CompletableFuture<RateLimitResult> softRetry) {
+        this.softRetry = softRetry;
+    }
 }
\ No newline at end of file
@@ -3,9 +3,49 @@ package com.placideh.rateLimiter.service.rateLimit;
 
 import com.placideh.rateLimiter.model.User;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 public interface RateLimitStrategy {
 
     RateLimitResult checkRateLimit(User client);
 
+    /**
+     * Bulk: consumes up to permits requests in one go and reports how many were granted
+     * ("you may send K of N"). Granted permits are consumed from every limit.
+     */
+    BulkRateLimitResult reserve(User client, long permits);
+
+    /**
+     * Non-blocking check. Strategies without an async Redis client run the blocking
+     * check on the given executor so the caller's thread is never held.
+     */
+    default CompletableFuture<RateLimitResult> checkRateLimitAsync(User client, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> checkRateLimit(client), executor);
+    }
+
     String getStrategyName();
+
+    /**
+     * Compensation: gives permits back to every limit this strategy charged for admitted
+     * requests (e.g. the send failed after admission). Capped at the limits,
+     * so a refund never grants more than the configured capacity.
+     */
+    void refund(User client, long permits);
+
+    /**
+     * Redis keys currently holding this client's state (used to measure bytes per client)
+     */
+    List<String> stateKeys(String clientId);
+
+    StrategyStats getStats();
+
+    /**
+     * True when the strategy enforces the system-wide limit itself,
+     * so the separate system-wide check must be skipped
+     */
+    default boolean includesSystemLimit() {
+        return false;
+    }
 }
@@ -0,0 +1,65 @@
+package com.placideh.rateLimiter.service.rateLimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Side-by-side comparison of the rate limit strategies
+ * Redis calls per check (from live traffic) and Redis bytes held per client
+ * (MEMORY USAGE of the client's state keys)
+ */
+@Slf4j
+@Component
+public class RateLimitStrategyMetrics {
+
+    // through a script: Lettuce reads a raw MEMORY command reply as bytes and fails on the integer
+    private static final DefaultRedisScript<Long> MEMORY_USAGE_SCRIPT =
+            new DefaultRedisScript<>("return redis.call('MEMORY', 'USAGE', KEYS[1])", Long.class);
+
+    @Autowired
+    private List<RateLimitStrategy> strategies;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    public Map<String, Object> compare(String clientId) {
+        Map<String, Object> comparison = new TreeMap<>();
+
+        for (RateLimitStrategy strategy : strategies) {
+            Map<String, Object> entry = new LinkedHashMap<>(strategy.getStats().toMap());
+
+            if (clientId != null && !clientId.isEmpty()) {
+                Map<String, Long> keyBytes = new LinkedHashMap<>();
+                long totalBytes = 0;
+                for (String key : strategy.stateKeys(clientId)) {
+                    Long bytes = memoryUsage(key);
+                    keyBytes.put(key, bytes);
+                    totalBytes += bytes == null ? 0 : bytes;
+                }
+                entry.put("keys", keyBytes);
+                entry.put("bytesPerClient", totalBytes);
+            }
+
+            comparison.put(strategy.getStrategyName(), entry);
+        }
+        return comparison;
+    }
+
+    // null when the key does not exist (e.g. the client has no traffic under this strategy yet)
+    private Long memoryUsage(String key) {
+        try {
+            return redisTemplate.execute(MEMORY_USAGE_SCRIPT, List.of(key));
+        } catch (Exception e) {
+            log.debug("MEMORY USAGE failed for {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.placideh.rateLimiter.service.rateLimit;
+
+import com.placideh.rateLimiter.service.cache.SystemConfigCache;
+import com.placideh.rateLimiter.util.Constants;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rate Limit Strategy Resolver
+ * Maps the RATE_LIMIT_ALGORITHM system config to the RateLimitStrategy bean that serves it
+ *
+ * The active algorithm is held in memory, so resolving it costs no database query.
+ * It is set directly when the algorithm is changed on this node, and follows every
+ * SystemConfigCache snapshot, which other nodes invalidate over Redis pub/sub.
+ */
+@Slf4j
+@Component
+public class RateLimitStrategyResolver {
+
+    @Autowired
+    private List<RateLimitStrategy> strategies;
+
+    @Autowired
+    private SystemConfigCache systemConfigCache;
+
+    private final Map<String, RateLimitStrategy> strategiesByName = new HashMap<>();
+
+    private volatile RateLimitStrategy activeStrategy;
+
+    @PostConstruct
+    public void init() {
+        strategies.forEach(strategy -> strategiesByName.put(strategy.getStrategyName(), strategy));
+        activeStrategy = strategiesByName.get(Constants.TOKEN_BUCKET);
+        log.info("Rate limit strategies available: {}", strategiesByName.keySet());
+        systemConfigCache.addListener(this::onConfigChanged);
+    }
+
+    public RateLimitStrategy getActiveStrategy() {
+        return activeStrategy;
+    }
+
+    public String getActiveAlgorithm() {
+        return getActiveStrategy().getStrategyName();
+    }
+
+    /**
+     * Strategy registered under the given algorithm name, or null
+     */
+    public RateLimitStrategy getStrategy(String algorithm) {
+        return algorithm == null ? null : strategiesByName.get(algorithm);
+    }
+
+    public boolean isSupported(String algorithm) {
+        return algorithm != null && strategiesByName.containsKey(algorithm);
+    }
+
+    public Set<String> getSupportedAlgorithms() {
+        return strategiesByName.keySet();
+    }
+
+    /**
+     * Switches the algorithm on this node immediately (called after the config row was saved)
+     */
+    public void setActiveAlgorithm(String algorithm) {
+        RateLimitStrategy strategy = strategiesByName.get(algorithm);
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unsupported rate limit algorithm: " + algorithm);
+        }
+        activeStrategy = strategy;
+        log.info("Rate limit algorithm switched to {}", algorithm);
+    }
+
+    private void onConfigChanged(Map<String, String> config) {
+        String algorithm = config.getOrDefault(Constants.CONFIG_RATE_LIMIT_ALGORITHM, Constants.TOKEN_BUCKET);
+
+        RateLimitStrategy strategy = strategiesByName.get(algorithm);
+        if (strategy == null) {
+            log.warn("Unknown rate limit algorithm '{}' in system config - keeping {}",
+                    algorithm, activeStrategy.getStrategyName());
+        } else if (strategy != activeStrategy) {
+            log.info("Rate limit algorithm changed to {}", algorithm);
+            activeStrategy = strategy;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.placideh.rateLimiter.service.rateLimit;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.AsyncBucketProxy;
+import io.github.bucket4j.distributed.proxy.AsyncProxyManager;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.RemoteAsyncBucketBuilder;
+import io.github.bucket4j.distributed.proxy.RemoteBucketBuilder;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sharded System-Wide Limiter
+ * Splits the global per-second budget across N Redis keys: system:global:{0} ... system:global:{N-1}
+ *
+ * Each request picks a random shard and falls back to the neighbouring shard when
+ * that one is empty, before rejecting. Picking per request (not per client) spreads
+ * even a single heavy client over every shard. The {shard} hash tag puts every shard
+ * in its own Redis Cluster slot, so the load is spread across nodes and there is no
+ * single-key CAS contention.
+ *
+ * Every grant is returned as a ShardGrant recording which shards gave how many tokens;
+ * refunds go back to exactly those shards.
+ *
+ * Error bound (L = limit per second, N = shards, each shard holds ceil(L / N)):
+ * 1. Over-admission: at most N x ceil(L / N) <= L + N - 1 requests per second
+ * 2. Under-admission: a request is rejected when the two shards it tried are empty
+ *    even if other shards still have tokens - only near the limit, when most shards are drained
+ */
+@Slf4j
+@Component
+public class ShardedSystemLimiter {
+
+    private static final String SHARD_KEY_PREFIX = "system:global:{";
+
+    @Autowired
+    private ProxyManager<String> proxyManager;
+
+    @Autowired
+    private AsyncProxyManager<String> asyncProxyManager;
+
+    @Autowired
+    private BucketConfigurationRegistry configurationRegistry;
+
+    @Value("${rate-limit.system.shards:8}")
+    private int shardCount;
+
+    private String[] shardKeys;
+    private RemoteBucketBuilder<String> bucketBuilder;
+    private RemoteAsyncBucketBuilder<String> asyncBucketBuilder;
+
+    private volatile ShardConfiguration shardConfiguration;
+
+    @PostConstruct
+    public void init() {
+        shardKeys = new String[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shardKeys[i] = SHARD_KEY_PREFIX + i + "}";
+        }
+        bucketBuilder = proxyManager.builder();
+        asyncBucketBuilder = asyncProxyManager.builder();
+        log.info("Sharded system limiter: {} shards", shardCount);
+    }
+
+    /**
+     * Consumes one token from a random shard, or from its neighbour.
+     * The grant carries the probe of the last shard tried.
+     */
+    public ShardGrant tryConsume() {
+        BucketConfiguration configuration = currentConfiguration().configuration;
+        int first = pickShard();
+
+        ConsumptionProbe probe = shardBucket(first, configuration).tryConsumeAndReturnRemaining(1);
+        if (probe.isConsumed() || shardCount == 1) {
+            return ShardGrant.single(first, probe);
+        }
+
+        int neighbour = neighbour(first);
+        return ShardGrant.single(neighbour, shardBucket(neighbour, configuration).tryConsumeAndReturnRemaining(1));
+    }
+
+    /**
+     * Non-blocking variant of tryConsume
+     */
+    public CompletableFuture<ShardGrant> tryConsumeAsync() {
+        BucketConfiguration configuration = currentConfiguration().configuration;
+        int first = pickShard();
+
+        return asyncShardBucket(first, configuration).tryConsumeAndReturnRemaining(1)
+                .thenCompose(probe -> {
+                    if (probe.isConsumed() || shardCount == 1) {
+                        return CompletableFuture.completedFuture(ShardGrant.single(first, probe));
+                    }
+                    int neighbour = neighbour(first);
+                    return asyncShardBucket(neighbour, configuration).tryConsumeAndReturnRemaining(1)
+                            .thenApply(neighbourProbe -> ShardGrant.single(neighbour, neighbourProbe));
+                });
+    }
+
+    /**
+     * Bulk variant: takes up to permits tokens from a random shard and the rest from its neighbour
+     */
+    public ShardGrant tryConsumeAsMuchAsPossible(long permits) {
+        BucketConfiguration configuration = currentConfiguration().configuration;
+        int first = pickShard();
+
+        long firstGranted = shardBucket(first, configuration).tryConsumeAsMuchAsPossible(permits);
+        if (firstGranted == permits || shardCount == 1) {
+            return new ShardGrant(first, firstGranted, -1, 0, null);
+        }
+
+        int neighbour = neighbour(first);
+        long neighbourGranted = shardBucket(neighbour, configuration).tryConsumeAsMuchAsPossible(permits - firstGranted);
+        return new ShardGrant(first, firstGranted, neighbour, neighbourGranted, null);
+    }
+
+    /**
+     * Returns up to tokens to the shards that granted them (compensation).
+     * Never returns more than the grant took, however often it is called.
+     */
+    public void refund(ShardGrant grant, long tokens) {
+        BucketConfiguration configuration = currentConfiguration().configuration;
+        long fromSecond = grant.takeBack(grant.secondRemaining, tokens);
+        if (fromSecond > 0) {
+            shardBucket(grant.secondShard, configuration).addTokens(fromSecond);
+        }
+        long fromFirst = grant.takeBack(grant.firstRemaining, tokens - fromSecond);
+        if (fromFirst > 0) {
+            shardBucket(grant.firstShard, configuration).addTokens(fromFirst);
+        }
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public long getShardCapacity() {
+        return currentConfiguration().capacity;
+    }
+
+    private int pickShard() {
+        return ThreadLocalRandom.current().nextInt(shardCount);
+    }
+
+    private int neighbour(int shard) {
+        return (shard + 1) % shardCount;
+    }
+
+    private Bucket shardBucket(int shard, BucketConfiguration configuration) {
+        return bucketBuilder.build(shardKeys[shard], configuration);
+    }
+
+    private AsyncBucketProxy asyncShardBucket(int shard, BucketConfiguration configuration) {
+        return asyncBucketBuilder.build(shardKeys[shard], configuration);
+    }
+
+    // rebuilt only when the system limit changes
+    private ShardConfiguration currentConfiguration() {
+        long systemLimit = configurationRegistry.getSystemLimitPerSecond();
+        ShardConfiguration current = shardConfiguration;
+        if (current == null || current.systemLimit != systemLimit) {
+            current = new ShardConfiguration(systemLimit, shardCount);
+            shardConfiguration = current;
+        }
+        return current;
+    }
+
+    /**
+     * Tokens taken by one grant, per shard. Refunds count the tokens down, so a shard
+     * never gets back more than it gave.
+     */
+    public static final class ShardGrant {
+        private final int firstShard;
+        private final int secondShard;
+        private final long granted;
+        private final AtomicLong firstRemaining;
+        private final AtomicLong secondRemaining;
+        private final ConsumptionProbe probe;
+
+        private ShardGrant(int firstShard, long firstGranted, int secondShard, long secondGranted, ConsumptionProbe probe) {
+            this.firstShard = firstShard;
+            this.secondShard = secondShard;
+            this.granted = firstGranted + secondGranted;
+            this.firstRemaining = new AtomicLong(firstGranted);
+            this.secondRemaining = new AtomicLong(secondGranted);
+            this.probe = probe;
+        }
+
+        private static ShardGrant single(int shard, ConsumptionProbe probe) {
+            return new ShardGrant(shard, probe.isConsumed() ? 1 : 0, -1, 0, probe);
+        }
+
+        public long getGranted() {
+            return granted;
+        }
+
+        /**
+         * Probe of the last shard tried (single-permit checks only, null for bulk grants)
+         */
+        public ConsumptionProbe getProbe() {
+            return probe;
+        }
+
+        private long takeBack(AtomicLong remaining, long wanted) {
+            if (wanted <= 0) {
+                return 0;
+            }
+            long current;
+            long taken;
+            do {
+                current = remaining.get();
+                taken = Math.min(current, wanted);
+                if (taken <= 0) {
+                    return 0;
+                }
+            } while (!remaining.compareAndSet(current, current - taken));
+            return taken;
+        }
+    }
+
+    private static final class ShardConfiguration {
+        private final long systemLimit;
+        private final long capacity;
+        private final BucketConfiguration configuration;
+
+        private ShardConfiguration(long systemLimit, int shardCount) {
+            this.systemLimit = systemLimit;
+            this.capacity = Math.max(1, (systemLimit + shardCount - 1) / shardCount);
+            this.configuration = BucketConfiguration.builder()
+                    .addLimit(Bandwidth.simple(capacity, Duration.ofSeconds(1)))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.placideh.rateLimiter.service.rateLimit;
+
+import com.placideh.rateLimiter.model.Tier;
+import com.placideh.rateLimiter.model.User;
+import com.placideh.rateLimiter.util.Constants;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Sliding Window Counter Strategy
+ * Approximates a rolling one-minute window from two fixed window counters per client
+ *
+ * estimate = previous minute count x (share of the previous minute still inside the
+ * rolling window) + current minute count
+ *
+ * 1. Window keys: sw:{<id>}:window:<epochMinute>, kept for two windows so each
+ *    one can serve as the previous counter
+ * 2. Monthly key: sw:{<id>}:monthly:<yyyy-MM>, a plain calendar-month counter
+ *    (monthly usage is billed per calendar month)
+ *
+ * The {<id>} hash tag keeps all keys of a client in one Redis Cluster slot, which the
+ * multi-key script requires (otherwise CROSSSLOT).
+ *
+ * One script call per check (scripts/sliding_window.lua), two small integers per client,
+ * and no 2x burst at window edges as with FIXED_WINDOW. The estimate assumes requests
+ * were spread evenly over the previous minute.
+ */
+@Slf4j
+@Component
+public class SlidingWindowStrategy implements RateLimitStrategy {
+
+    public static final String STRATEGY_NAME = Constants.SLIDING_WINDOW;
+
+    // sw:{<id>}:... - the client id is the hash tag
+    private static final String KEY_PREFIX = "sw:{";
+
+    private static final long WINDOW_MS = Duration.ofMinutes(1).toMillis();
+    private static final long EXPIRY_SLACK_MS = Duration.ofSeconds(5).toMillis();
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    private final StrategyStats stats = new StrategyStats();
+
+    @SuppressWarnings("rawtypes")
+    private DefaultRedisScript<List> script;
+    private DefaultRedisScript<Long> refundScript;
+
+    @PostConstruct
+    public void init() {
+        script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource("scripts/sliding_window.lua"));
+        script.setResultType(List.class);
+
+        refundScript = new DefaultRedisScript<>();
+        refundScript.setLocation(new ClassPathResource("scripts/refund_counters.lua"));
+        refundScript.setResultType(Long.class);
+    }
+
+    @Override
+    public RateLimitResult checkRateLimit(User client) {
+        return reserve(client, 1).toDecision();
+    }
+
+    @Override
+    public BulkRateLimitResult reserve(User client, long permits) {
+        Tier tier = client.getTier();
+        long windowLimit = tier.getRequestsPerMinute();
+        long monthlyLimit = tier.getRequestsPerMonth();
+
+        long now = System.currentTimeMillis();
+        long windowId = now / WINDOW_MS;
+        long elapsedMs = now - windowId * WINDOW_MS;
+        double previousWeight = (double) (WINDOW_MS - elapsedMs) / WINDOW_MS;
+
+        YearMonth month = YearMonth.now(ZoneOffset.UTC);
+        long monthRemainingMs = FixedWindowStrategy.monthEndMillis(month) - now;
+
+        List<String> keys = List.of(
+                windowKey(client.getId(), windowId),
+                windowKey(client.getId(), windowId - 1),
+                monthlyKey(client.getId(), month),
+                monthlyKey(client.getId(), month.minusMonths(1)));
+
+        @SuppressWarnings("unchecked")
+        List<Long> reply = redisTemplate.execute(script, keys,
+                String.valueOf(windowLimit), String.valueOf(previousWeight), String.valueOf(2 * WINDOW_MS + EXPIRY_SLACK_MS),
+                String.valueOf(monthlyLimit), "0", String.valueOf(monthRemainingMs + EXPIRY_SLACK_MS),
+                String.valueOf(permits));
+
+        long granted = reply.get(0);
+        int blockingIndex = reply.get(1).intValue();
+        long windowEstimate = reply.get(2);
+        long previousWindowCount = reply.get(3);
+        long monthlyCount = reply.get(4);
+
+        stats.recordRedisCalls(1);
+        stats.recordCheck(granted == permits);
+
+        RateLimitResult admitted = granted > 0
+                ? buildResult(true, windowEstimate, windowLimit, "WINDOW", 0, ThrottlingLevels.WINDOW_SOFT_RATIO)
+                : null;
+
+        RateLimitResult rejected = null;
+        if (blockingIndex == 1) {
+            log.warn("WINDOW limit exceeded for user: {} (sliding window)", client.getId());
+            long retryAfterMs = retryAfterMs(windowEstimate, windowLimit, previousWindowCount, WINDOW_MS - elapsedMs);
+            rejected = buildResult(false, windowEstimate, windowLimit, "WINDOW",
+                    Math.max(1, (retryAfterMs + 999) / 1000), ThrottlingLevels.WINDOW_SOFT_RATIO);
+        } else if (blockingIndex == 2) {
+            log.warn("MONTHLY limit exceeded for user: {} (sliding window)", client.getId());
+            rejected = buildResult(false, monthlyCount, monthlyLimit, "MONTHLY", 0, ThrottlingLevels.MONTHLY_SOFT_RATIO);
+        }
+
+        return new BulkRateLimitResult(permits, granted, admitted, rejected);
+    }
+
+    @Override
+    public String getStrategyName() {
+        return STRATEGY_NAME;
+    }
+
+    // only the current counters are decremented (see FixedWindowStrategy.refund)
+    @Override
+    public void refund(User client, long permits) {
+        long windowId = System.currentTimeMillis() / WINDOW_MS;
+        YearMonth month = YearMonth.now(ZoneOffset.UTC);
+
+        redisTemplate.execute(refundScript,
+                List.of(windowKey(client.getId(), windowId), monthlyKey(client.getId(), month)),
+                String.valueOf(permits));
+        stats.recordRedisCalls(1);
+        stats.recordRefund();
+    }
+
+    @Override
+    public List<String> stateKeys(String clientId) {
+        long windowId = System.currentTimeMillis() / WINDOW_MS;
+        return List.of(windowKey(clientId, windowId), windowKey(clientId, windowId - 1),
+                monthlyKey(clientId, YearMonth.now(ZoneOffset.UTC)));
+    }
+
+    @Override
+    public StrategyStats getStats() {
+        return stats;
+    }
+
+    // the previous window's weight decays linearly - wait until enough of it has slid out
+    private long retryAfterMs(long estimate, long limit, long previousCount, long windowRemainingMs) {
+        if (previousCount <= 0) {
+            return windowRemainingMs;
+        }
+        long excess = estimate + 1 - limit;
+        return Math.min(windowRemainingMs, (excess * WINDOW_MS + previousCount - 1) / previousCount);
+    }
+
+    private String windowKey(String clientId, long windowId) {
+        return KEY_PREFIX + clientId + "}:window:" + windowId;
+    }
+
+    private String monthlyKey(String clientId, YearMonth month) {
+        return KEY_PREFIX + clientId + "}:monthly:" + month;
+    }
+
+    private RateLimitResult buildResult(boolean allowed, long count, long limit, String limitType,
+                                        long retryAfterSeconds, double softRatio) {
+        long current = Math.min(count, limit);
+        long softThreshold = (long) (limit * softRatio);
+        String throttlingLevel = allowed ? ThrottlingLevels.determine(current, limit, softThreshold) : "HARD";
+
+        RateLimitResult rateLimitResult = new RateLimitResult();
+
+        rateLimitResult.setAllowed(allowed);
+        rateLimitResult.setCurrentUsage(current);
+        rateLimitResult.setLimit(limit);
+        rateLimitResult.setRemainingRequests(Math.max(0, limit - count));
+        rateLimitResult.setRetryAfterSeconds(retryAfterSeconds);
+        rateLimitResult.setLimitType(limitType);
+        rateLimitResult.setAlgorithmUsed(STRATEGY_NAME);
+        rateLimitResult.setThrottlingLevel(throttlingLevel);
+        rateLimitResult.setThrottlingMessage(ThrottlingLevels.message(throttlingLevel, current, limit));
+
+        return rateLimitResult;
+    }
+}
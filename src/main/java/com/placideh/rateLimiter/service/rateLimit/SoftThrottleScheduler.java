@@ -0,0 +1,115 @@
+package com.placideh.rateLimiter.service.rateLimit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Soft Throttle Scheduler
+ * Parks soft-throttled requests on a timer instead of sleeping on the request thread
+ *
+ * A parked request holds no thread: the retry is scheduled after the tier's soft
+ * delay and its result completes the caller's future. The number of parked
+ * requests is capped (rate-limit.soft-throttle.max-parked); above the cap a
+ * request is not parked and is rejected straight away.
+ */
+@Slf4j
+@Component
+public class SoftThrottleScheduler {
+
+    @Value("${rate-limit.soft-throttle.max-parked:10000}")
+    private int maxParked;
+
+    @Value("${rate-limit.soft-throttle.scheduler-threads:2}")
+    private int schedulerThreads;
+
+    private final AtomicInteger parked = new AtomicInteger();
+    private final LongAdder parkedTotal = new LongAdder();
+    private final LongAdder releasedAllowed = new LongAdder();
+    private final LongAdder releasedRejected = new LongAdder();
+    private final LongAdder overflowRejected = new LongAdder();
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        scheduler = Executors.newScheduledThreadPool(schedulerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "soft-throttle-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Parks a request for delayMs and then runs the retry.
+     * Returns null when the request could not be parked (too many parked requests).
+     *
+     * The retry only starts the next (async) check - it must not block the scheduler thread.
+     */
+    public CompletableFuture<RateLimitResult> park(long delayMs, Supplier<CompletableFuture<RateLimitResult>> retry) {
+        if (parked.incrementAndGet() > maxParked) {
+            parked.decrementAndGet();
+            overflowRejected.increment();
+            return null;
+        }
+        parkedTotal.increment();
+
+        CompletableFuture<RateLimitResult> result = new CompletableFuture<>();
+        scheduler.schedule(() -> {
+            try {
+                retry.get().whenComplete((retryResult, error) -> {
+                    parked.decrementAndGet();
+                    if (error != null) {
+                        result.completeExceptionally(error);
+                        return;
+                    }
+                    if (retryResult.isAllowed()) {
+                        releasedAllowed.increment();
+                    } else {
+                        releasedRejected.increment();
+                    }
+                    result.complete(retryResult);
+                });
+            } catch (Exception e) {
+                parked.decrementAndGet();
+                log.error("Soft throttle retry failed: {}", e.getMessage());
+                result.completeExceptionally(e);
+            }
+        }, delayMs, TimeUnit.MILLISECONDS);
+
+        return result;
+    }
+
+    public int getParked() {
+        return parked.get();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("parked", parked.get());
+        stats.put("maxParked", maxParked);
+        stats.put("parkedTotal", parkedTotal.sum());
+        stats.put("releasedAllowed", releasedAllowed.sum());
+        stats.put("releasedRejected", releasedRejected.sum());
+        stats.put("overflowRejected", overflowRejected.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,46 @@
+package com.placideh.rateLimiter.service.rateLimit;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-strategy counters used to compare algorithms on the same traffic
+ * Redis calls are counted per command/script sent by the strategy (a Bucket4j
+ * compare-and-swap retry inside one bucket operation is not visible here).
+ */
+public class StrategyStats {
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder redisCalls = new LongAdder();
+    private final LongAdder refunds = new LongAdder();
+
+    public void recordCheck(boolean allowed) {
+        checks.increment();
+        if (!allowed) {
+            rejected.increment();
+        }
+    }
+
+    public void recordRefund() {
+        refunds.increment();
+    }
+
+    public void recordRedisCalls(int calls) {
+        redisCalls.add(calls);
+    }
+
+    public Map<String, Object> toMap() {
+        long checkCount = checks.sum();
+        long callCount = redisCalls.sum();
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("checks", checkCount);
+        stats.put("rejected", rejected.sum());
+        stats.put("refunds", refunds.sum());
+        stats.put("redisCalls", callCount);
+        stats.put("redisCallsPerCheck", checkCount == 0 ? 0.0 : (double) callCount / checkCount);
+        return stats;
+    }
+}
@@ -0,0 +1,294 @@
+package com.placideh.rateLimiter.service.rateLimit;
+
+import com.placideh.rateLimiter.util.Constants;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.VerboseResult;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * System Token Lease Manager
+ * Leases batches of system-wide tokens from the Redis "system:global" bucket
+ * and spends them locally with a lock-free counter
+ *
+ * 1. Lease size = rate-limit.system.lease.fraction (default 5%) of the per-second limit
+ * 2. Refill is triggered asynchronously when the local pool runs low
+ * 3. Unused tokens are returned to Redis when the lease expires
+ *
+ * Leasing (cold path, async refill) and returning are serialized on one lock, and
+ * the local pool is re-checked under it, so a node never holds two leases at once.
+ * Every lease bumps an epoch; an expiry check only returns the lease it observed,
+ * never one taken in the meantime. The lease thread only runs in LEASED mode.
+ * Tokens of an expired lease are never spent: a new lease first returns them to
+ * Redis, and release() drops tokens once their lease has expired.
+ *
+ * Over-admission bound: tokens are taken from Redis before they are spent, so the
+ * total never exceeds what the Redis bucket granted. A lease may however be spent
+ * up to lease.ttl-ms after it was taken, so any one-second window can admit at most
+ * (nodes x lease size) requests more than the configured rate.
+ */
+@Slf4j
+@Component
+public class SystemTokenLeaseManager {
+
+    private static final String SYSTEM_BUCKET_KEY = "system:global";
+
+    @Autowired
+    private ProxyManager<String> proxyManager;
+
+    @Autowired
+    private BucketConfigurationRegistry configurationRegistry;
+
+    @Value("${rate-limit.system.lease.fraction:0.05}")
+    private double leaseFraction;
+
+    // start an async refill once the local pool drops below this share of a lease
+    @Value("${rate-limit.system.lease.refill-threshold:0.25}")
+    private double refillThreshold;
+
+    @Value("${rate-limit.system.lease.ttl-ms:1000}")
+    private long leaseTtlMs;
+
+    @Value("${rate-limit.system.enabled:true}")
+    private boolean systemWideEnabled;
+
+    @Value("${rate-limit.system.mode:SINGLE}")
+    private String systemMode;
+
+    private final AtomicLong localTokens = new AtomicLong();
+    // one async refill queued at a time
+    private final AtomicBoolean refillInFlight = new AtomicBoolean();
+    // serializes every lease and return against the shared Redis bucket
+    private final Object leaseLock = new Object();
+    private volatile long leaseExpiresAtNanos;
+    private volatile long leaseEpoch;
+    // tokens left in the Redis bucket after this node's last lease
+    private volatile long lastGlobalRemaining = -1;
+
+    private final LongAdder leasesAcquired = new LongAdder();
+    private final LongAdder tokensLeased = new LongAdder();
+    private final LongAdder tokensReturned = new LongAdder();
+    private final LongAdder localAdmissions = new LongAdder();
+    private final LongAdder redisOperations = new LongAdder();
+
+    private ScheduledExecutorService leaseExecutor;
+
+    @PostConstruct
+    public void init() {
+        if (!systemWideEnabled || !Constants.SYSTEM_MODE_LEASED.equalsIgnoreCase(systemMode)) {
+            return;
+        }
+        leaseExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "system-token-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long checkIntervalMs = Math.max(50, leaseTtlMs / 2);
+        leaseExecutor.scheduleAtFixedRate(this::returnExpiredLease, checkIntervalMs, checkIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (leaseExecutor == null) {
+            return;
+        }
+        leaseExecutor.shutdownNow();
+        synchronized (leaseLock) {
+            returnUnusedTokens();
+        }
+    }
+
+    /**
+     * Takes one system token from the local lease.
+     * Only goes to Redis (synchronously) when the local pool is empty or expired.
+     */
+    public boolean tryAcquire() {
+        if (takeLocal()) {
+            localAdmissions.increment();
+            triggerRefillIfLow();
+            return true;
+        }
+
+        // local pool is empty (cold start or burst) - lease on this thread, unless a
+        // lease that was in flight (async refill or another caller) refilled the pool meanwhile
+        synchronized (leaseLock) {
+            if (!takeLocal()) {
+                if (leaseTokens() == 0 || !takeLocal()) {
+                    return false;
+                }
+            }
+        }
+        localAdmissions.increment();
+        return true;
+    }
+
+    /**
+     * Bulk variant of tryAcquire: takes up to permits tokens, returns how many were taken
+     */
+    public long tryAcquire(long permits) {
+        long granted = 0;
+        while (granted < permits && tryAcquire()) {
+            granted++;
+        }
+        return granted;
+    }
+
+    /**
+     * Gives a token back to the local pool (e.g. compensation after a failed send).
+     * A no-op once the lease has expired - the token stays consumed in Redis.
+     */
+    public void release(long tokens) {
+        if (System.nanoTime() - leaseExpiresAtNanos > 0) {
+            return;
+        }
+        localTokens.addAndGet(tokens);
+    }
+
+    public long getLocalTokens() {
+        return localTokens.get();
+    }
+
+    /**
+     * Estimate of the system-wide tokens left: what the Redis bucket reported at this node's
+     * last lease plus what this node still holds locally. Leases held by other nodes are not visible.
+     */
+    public long getEstimatedGlobalRemaining(long systemLimitPerSecond) {
+        long globalRemaining = lastGlobalRemaining;
+        if (globalRemaining < 0) {
+            return localTokens.get();
+        }
+        return Math.min(systemLimitPerSecond, globalRemaining + localTokens.get());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("leaseSize", leaseSize());
+        stats.put("localTokens", localTokens.get());
+        stats.put("leasesAcquired", leasesAcquired.sum());
+        stats.put("tokensLeased", tokensLeased.sum());
+        stats.put("tokensReturned", tokensReturned.sum());
+        stats.put("localAdmissions", localAdmissions.sum());
+        stats.put("redisOperations", redisOperations.sum());
+        stats.put("leaseEpoch", leaseEpoch);
+        stats.put("lastGlobalRemaining", lastGlobalRemaining);
+        return stats;
+    }
+
+    private boolean takeLocal() {
+        if (System.nanoTime() - leaseExpiresAtNanos > 0) {
+            return false;
+        }
+        long current;
+        do {
+            current = localTokens.get();
+            if (current <= 0) {
+                return false;
+            }
+        } while (!localTokens.compareAndSet(current, current - 1));
+        return true;
+    }
+
+    private void triggerRefillIfLow() {
+        if (leaseExecutor == null) {
+            return;
+        }
+        if (isLow() && refillInFlight.compareAndSet(false, true)) {
+            leaseExecutor.execute(() -> {
+                try {
+                    synchronized (leaseLock) {
+                        // a cold-path lease may have refilled the pool while this task was queued
+                        if (isLow()) {
+                            leaseTokens();
+                        }
+                    }
+                } catch (Exception e) {
+                    log.error("Async system token lease failed: {}", e.getMessage());
+                } finally {
+                    refillInFlight.set(false);
+                }
+            });
+        }
+    }
+
+    private boolean isLow() {
+        return localTokens.get() < leaseSize() * refillThreshold || System.nanoTime() - leaseExpiresAtNanos > 0;
+    }
+
+    // consumes up to one lease worth of tokens from the shared Redis bucket - one Redis operation.
+    // Caller holds leaseLock.
+    private long leaseTokens() {
+        // leftovers of an expired lease go back to Redis instead of joining the new lease
+        if (System.nanoTime() - leaseExpiresAtNanos > 0) {
+            returnUnusedTokens();
+        }
+
+        long size = leaseSize();
+        Bucket bucket = proxyManager.builder()
+                .build(SYSTEM_BUCKET_KEY, configurationRegistry.getSystemConfiguration());
+
+        VerboseResult<Long> result = bucket.asVerbose().tryConsumeAsMuchAsPossible(size);
+        long granted = result.getValue();
+        lastGlobalRemaining = result.getDiagnostics().getAvailableTokens();
+        redisOperations.increment();
+
+        if (granted > 0) {
+            localTokens.addAndGet(granted);
+            leaseEpoch++;
+            leaseExpiresAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(leaseTtlMs);
+            leasesAcquired.increment();
+            tokensLeased.add(granted);
+            log.debug("Leased {} system tokens (requested {})", granted, size);
+        }
+        return granted;
+    }
+
+    private void returnExpiredLease() {
+        try {
+            long observedEpoch = leaseEpoch;
+            if (System.nanoTime() - leaseExpiresAtNanos <= 0) {
+                return;
+            }
+            synchronized (leaseLock) {
+                // a new lease taken since the check is not expired - keep it
+                if (leaseEpoch == observedEpoch && System.nanoTime() - leaseExpiresAtNanos > 0) {
+                    returnUnusedTokens();
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to return expired system token lease: {}", e.getMessage());
+        }
+    }
+
+    // caller holds leaseLock
+    private void returnUnusedTokens() {
+        long unused = localTokens.getAndSet(0);
+        if (unused <= 0) {
+            return;
+        }
+
+        Bucket bucket = proxyManager.builder()
+                .build(SYSTEM_BUCKET_KEY, configurationRegistry.getSystemConfiguration());
+        bucket.addTokens(unused);
+        redisOperations.increment();
+        tokensReturned.add(unused);
+        log.debug("Returned {} unused system tokens", unused);
+    }
+
+    private long leaseSize() {
+        return Math.max(1, (long) (configurationRegistry.getSystemLimitPerSecond() * leaseFraction));
+    }
+}
@@ -0,0 +1,35 @@
+package com.placideh.rateLimiter.service.rateLimit;
+
+/**
+ * Shared soft/hard throttling helpers used by every rate limit strategy
+ * Window limits warn at 80% usage, monthly limits at 90%
+ */
+public final class ThrottlingLevels {
+
+    public static final double WINDOW_SOFT_RATIO = 0.8;
+    public static final double MONTHLY_SOFT_RATIO = 0.9;
+
+    public static String determine(long current, long limit, long softThreshold) {
+        if (current >= limit) {
+            return "HARD";
+        } else if (current >= softThreshold) {
+            return "SOFT";
+        } else {
+            return "NONE";
+        }
+    }
+
+    public static String message(String level, long current, long limit) {
+        switch (level) {
+            case "HARD":
+                return String.format("Rate limit exceeded (%d/%d). Request blocked.", current, limit);
+            case "SOFT":
+                double percentage = (current * 100.0) / limit;
+                return String.format("Warning: Approaching limit (%.1f%%). Consider slowing down.", percentage);
+            default:
+                return "Normal operation";
+        }
+    }
+
+    private ThrottlingLevels() {}
+}
@@ -0,0 +1,389 @@
+package com.placideh.rateLimiter.service.rateLimit;
+
+import com.placideh.rateLimiter.model.Tier;
+import com.placideh.rateLimiter.model.User;
+import com.placideh.rateLimiter.util.Constants;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.VerboseResult;
+import io.github.bucket4j.distributed.proxy.AsyncProxyManager;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.RemoteAsyncBucketBuilder;
+import io.github.bucket4j.distributed.proxy.RemoteBucketBuilder;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Token Bucket Strategy (Bucket4j + Redis)
+ * Window (per-minute) → Monthly buckets per client, with soft throttling for SOFT tiers
+ */
+@Slf4j
+@Component
+public class TokenBucketStrategy implements RateLimitStrategy {
+
+    public static final String STRATEGY_NAME = Constants.TOKEN_BUCKET;
+
+    private static final String WINDOW_KEY_PREFIX = "window:user:";
+    private static final String MONTHLY_KEY_PREFIX = "monthly:user:";
+
+    @Autowired
+    private ProxyManager<String> proxyManager;
+
+    @Autowired
+    private AsyncProxyManager<String> asyncProxyManager;
+
+    @Autowired
+    private BucketConfigurationRegistry configurationRegistry;
+
+    @Autowired
+    private SoftThrottleScheduler softThrottleScheduler;
+
+    // fallback for tiers without their own soft_delay_ms
+    @Value("${rate-limit.soft-delay-ms:500}")
+    private long softDelayMs;
+
+    private final StrategyStats stats = new StrategyStats();
+
+    // the builders are stateless - build them once and reuse them for every bucket lookup
+    private RemoteBucketBuilder<String> bucketBuilder;
+    private RemoteAsyncBucketBuilder<String> asyncBucketBuilder;
+
+    @PostConstruct
+    public void init() {
+        bucketBuilder = proxyManager.builder();
+        asyncBucketBuilder = asyncProxyManager.builder();
+    }
+
+    /**
+     * A parked SOFT throttle retry is not waited for: the window rejection is returned with
+     * the retry (followed by the monthly check) attached as its softRetry
+     */
+    @Override
+    public RateLimitResult checkRateLimit(User client) {
+        RateLimitResult windowResult = checkWindowLimit(client);
+        if (windowResult.getSoftRetry() != null) {
+            windowResult.setSoftRetry(windowResult.getSoftRetry()
+                    .thenCompose(retryResult -> withMonthlyLimitAsync(client, retryResult)));
+            return windowResult;
+        }
+        if (!windowResult.isAllowed()) {
+            stats.recordCheck(false);
+            return windowResult;
+        }
+
+        RateLimitResult monthlyResult = checkMonthlyLimit(client);
+        stats.recordCheck(monthlyResult.isAllowed());
+        return monthlyResult.isAllowed() ? windowResult : monthlyResult;
+    }
+
+    // Bucket4j has a native async API - no executor hop needed
+    @Override
+    public CompletableFuture<RateLimitResult> checkRateLimitAsync(User client, Executor executor) {
+        return checkWindowLimitAsync(client).thenCompose(windowResult -> withMonthlyLimitAsync(client, windowResult));
+    }
+
+    private CompletableFuture<RateLimitResult> withMonthlyLimitAsync(User client, RateLimitResult windowResult) {
+        if (!windowResult.isAllowed()) {
+            stats.recordCheck(false);
+            return CompletableFuture.completedFuture(windowResult);
+        }
+        return checkMonthlyLimitAsync(client).thenApply(monthlyResult -> {
+            stats.recordCheck(monthlyResult.isAllowed());
+            return monthlyResult.isAllowed() ? windowResult : monthlyResult;
+        });
+    }
+
+    /**
+     * Takes as many tokens as possible from the window bucket, then the same amount from the
+     * monthly bucket; window tokens the monthly bucket could not cover are put back.
+     * No soft throttle delay - what is not granted now is reported as rate limited.
+     */
+    @Override
+    public BulkRateLimitResult reserve(User client, long permits) {
+        BucketConfigurationRegistry.TierConfigurations tierConfigurations = configurationRegistry.forTier(client.getTier());
+        long windowLimit = tierConfigurations.getRequestsPerMinute();
+        long monthlyLimit = tierConfigurations.getRequestsPerMonth();
+
+        Bucket windowBucket = bucketBuilder.build(WINDOW_KEY_PREFIX + client.getId(), tierConfigurations.getWindow());
+        VerboseResult<Long> window = windowBucket.asVerbose().tryConsumeAsMuchAsPossible(permits);
+        long granted = window.getValue();
+        long windowRemaining = window.getDiagnostics().getAvailableTokens();
+        stats.recordRedisCalls(1);
+
+        RateLimitResult rejected = null;
+        if (granted < permits) {
+            long retryAfterSeconds = Math.max(1, Duration.ofMinutes(1).toSeconds() / Math.max(1, windowLimit));
+            rejected = buildBulkResult(false, windowRemaining, windowLimit, "WINDOW", retryAfterSeconds,
+                    ThrottlingLevels.WINDOW_SOFT_RATIO);
+        }
+
+        if (granted > 0) {
+            Bucket monthlyBucket = bucketBuilder.build(MONTHLY_KEY_PREFIX + client.getId(), tierConfigurations.getMonthly());
+            VerboseResult<Long> monthly = monthlyBucket.asVerbose().tryConsumeAsMuchAsPossible(granted);
+            stats.recordRedisCalls(1);
+
+            long monthlyGranted = monthly.getValue();
+            if (monthlyGranted < granted) {
+                windowBucket.addTokens(granted - monthlyGranted);
+                stats.recordRedisCalls(1);
+                windowRemaining += granted - monthlyGranted;
+                granted = monthlyGranted;
+                rejected = buildBulkResult(false, monthly.getDiagnostics().getAvailableTokens(), monthlyLimit,
+                        "MONTHLY", 0, ThrottlingLevels.MONTHLY_SOFT_RATIO);
+            }
+        }
+
+        stats.recordCheck(granted == permits);
+
+        RateLimitResult admitted = granted > 0
+                ? buildBulkResult(true, windowRemaining, windowLimit, "WINDOW", 0, ThrottlingLevels.WINDOW_SOFT_RATIO)
+                : null;
+
+        return new BulkRateLimitResult(permits, granted, admitted, rejected);
+    }
+
+    @Override
+    public String getStrategyName() {
+        return STRATEGY_NAME;
+    }
+
+    @Override
+    public void refund(User client, long permits) {
+        BucketConfigurationRegistry.TierConfigurations tierConfigurations = configurationRegistry.forTier(client.getTier());
+
+        bucketBuilder.build(WINDOW_KEY_PREFIX + client.getId(), tierConfigurations.getWindow()).addTokens(permits);
+        bucketBuilder.build(MONTHLY_KEY_PREFIX + client.getId(), tierConfigurations.getMonthly()).addTokens(permits);
+        stats.recordRedisCalls(2);
+        stats.recordRefund();
+    }
+
+    @Override
+    public List<String> stateKeys(String clientId) {
+        return List.of(WINDOW_KEY_PREFIX + clientId, MONTHLY_KEY_PREFIX + clientId);
+    }
+
+    @Override
+    public StrategyStats getStats() {
+        return stats;
+    }
+
+    private RateLimitResult checkWindowLimit(User user) {
+        Tier tier = user.getTier();
+        BucketConfigurationRegistry.TierConfigurations tierConfigurations = configurationRegistry.forTier(tier);
+        long limit = tierConfigurations.getRequestsPerMinute();
+
+        String bucketKey = WINDOW_KEY_PREFIX + user.getId();
+        BucketConfiguration config = tierConfigurations.getWindow();
+
+        Bucket bucket = bucketBuilder.build(bucketKey, config);
+        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+        stats.recordRedisCalls(1);
+
+        // check for soft throttling - the caller gets the parked retry, this thread does not wait for it
+        if (!probe.isConsumed() && "SOFT".equalsIgnoreCase(tier.getThrottleMode())) {
+            CompletableFuture<RateLimitResult> retry = handleSoftThrottle(user, bucketKey, config, tier, limit, probe);
+            if (retry.isDone()) {
+                // not parked (queue full) - already rejected
+                return retry.join();
+            }
+            RateLimitResult parked = buildWindowResult(probe, limit);
+            parked.setSoftRetry(retry);
+            return parked;
+        }
+
+        return buildWindowResult(probe, limit);
+    }
+
+    private CompletableFuture<RateLimitResult> checkWindowLimitAsync(User user) {
+        Tier tier = user.getTier();
+        BucketConfigurationRegistry.TierConfigurations tierConfigurations = configurationRegistry.forTier(tier);
+        long limit = tierConfigurations.getRequestsPerMinute();
+
+        String bucketKey = WINDOW_KEY_PREFIX + user.getId();
+        BucketConfiguration config = tierConfigurations.getWindow();
+
+        stats.recordRedisCalls(1);
+        return asyncBucketBuilder.build(bucketKey, config)
+                .tryConsumeAndReturnRemaining(1)
+                .thenCompose(probe -> {
+                    if (!probe.isConsumed() && "SOFT".equalsIgnoreCase(tier.getThrottleMode())) {
+                        return handleSoftThrottle(user, bucketKey, config, tier, limit, probe);
+                    }
+                    return CompletableFuture.completedFuture(buildWindowResult(probe, limit));
+                });
+    }
+
+    private RateLimitResult buildWindowResult(ConsumptionProbe probe, long limit) {
+        // calculate throttling level
+        long softThreshold = (long) (limit * ThrottlingLevels.WINDOW_SOFT_RATIO); // 80%
+        long current = limit - probe.getRemainingTokens();
+        String throttlingLevel = ThrottlingLevels.determine(current, limit, softThreshold);
+
+        RateLimitResult rateLimitResult = new RateLimitResult();
+
+        rateLimitResult.setAllowed(probe.isConsumed());
+        rateLimitResult.setCurrentUsage(current);
+        rateLimitResult.setLimit(limit);
+        rateLimitResult.setRemainingRequests(probe.getRemainingTokens());
+        rateLimitResult.setLimitType("WINDOW");
+        rateLimitResult.setRetryAfterSeconds(probe.isConsumed() ? 0 :
+                Duration.ofNanos(probe.getNanosToWaitForRefill()).toSeconds());
+        rateLimitResult.setAlgorithmUsed(STRATEGY_NAME);
+        rateLimitResult.setThrottlingLevel(throttlingLevel);
+        rateLimitResult.setThrottlingMessage(ThrottlingLevels.message(throttlingLevel, current, limit));
+
+        return rateLimitResult;
+    }
+
+    private RateLimitResult checkMonthlyLimit(User user) {
+        BucketConfigurationRegistry.TierConfigurations tierConfigurations = configurationRegistry.forTier(user.getTier());
+        long limit = tierConfigurations.getRequestsPerMonth();
+
+        String bucketKey = MONTHLY_KEY_PREFIX + user.getId();
+
+        Bucket bucket = bucketBuilder.build(bucketKey, tierConfigurations.getMonthly());
+        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+        stats.recordRedisCalls(1);
+
+        return buildMonthlyResult(probe, limit);
+    }
+
+    private CompletableFuture<RateLimitResult> checkMonthlyLimitAsync(User user) {
+        BucketConfigurationRegistry.TierConfigurations tierConfigurations = configurationRegistry.forTier(user.getTier());
+        long limit = tierConfigurations.getRequestsPerMonth();
+
+        String bucketKey = MONTHLY_KEY_PREFIX + user.getId();
+
+        stats.recordRedisCalls(1);
+        return asyncBucketBuilder.build(bucketKey, tierConfigurations.getMonthly())
+                .tryConsumeAndReturnRemaining(1)
+                .thenApply(probe -> buildMonthlyResult(probe, limit));
+    }
+
+    private RateLimitResult buildMonthlyResult(ConsumptionProbe probe, long limit) {
+        long softThreshold = (long) (limit * ThrottlingLevels.MONTHLY_SOFT_RATIO); // 90%
+        long current = limit - probe.getRemainingTokens();
+        String throttlingLevel = ThrottlingLevels.determine(current, limit, softThreshold);
+
+        RateLimitResult rateLimitResult = new RateLimitResult();
+
+        rateLimitResult.setAllowed(probe.isConsumed());
+        rateLimitResult.setCurrentUsage(current);
+        rateLimitResult.setLimit(limit);
+        rateLimitResult.setRemainingRequests(probe.getRemainingTokens());
+        rateLimitResult.setLimitType("MONTHLY");
+        rateLimitResult.setRetryAfterSeconds(0);
+        rateLimitResult.setAlgorithmUsed(STRATEGY_NAME);
+        rateLimitResult.setThrottlingLevel(throttlingLevel);
+        rateLimitResult.setThrottlingMessage(ThrottlingLevels.message(throttlingLevel, current, limit));
+
+        return rateLimitResult;
+    }
+
+
+    /**
+     * SOFT throttle: park the request for the tier's soft delay, then retry the window bucket once.
+     * No thread is held while the request is parked.
+     */
+    private CompletableFuture<RateLimitResult> handleSoftThrottle(User user, String bucketKey,
+                                                                  BucketConfiguration config,
+                                                                  Tier tier, long limit, ConsumptionProbe probe) {
+        long delayMs = resolveSoftDelayMs(tier);
+        long current = limit - probe.getRemainingTokens();
+
+        log.info("SOFT throttle: Delaying user {} for {}ms", user.getId(), delayMs);
+
+        CompletableFuture<RateLimitResult> retry = softThrottleScheduler.park(delayMs,
+                () -> {
+                    stats.recordRedisCalls(1);
+                    return asyncBucketBuilder.build(bucketKey, config)
+                            .tryConsumeAndReturnRemaining(1)
+                            .thenApply(retryProbe -> {
+                                if (retryProbe.isConsumed()) {
+                                    log.info("SOFT throttle SUCCESS: Request allowed after delay for user {}", user.getId());
+                                    return buildSoftAllowedResult(retryProbe, limit);
+                                }
+                                return buildSoftRejectedResult(limit - retryProbe.getRemainingTokens(), limit,
+                                        retryProbe.getNanosToWaitForRefill());
+                            });
+                });
+
+        if (retry == null) {
+            log.warn("SOFT throttle queue full - rejecting user {} without delay", user.getId());
+            return CompletableFuture.completedFuture(
+                    buildSoftRejectedResult(current, limit, probe.getNanosToWaitForRefill()));
+        }
+        return retry;
+    }
+
+    private RateLimitResult buildBulkResult(boolean allowed, long remaining, long limit, String limitType,
+                                            long retryAfterSeconds, double softRatio) {
+        long current = limit - remaining;
+        long softThreshold = (long) (limit * softRatio);
+        String throttlingLevel = allowed ? ThrottlingLevels.determine(current, limit, softThreshold) : "HARD";
+
+        RateLimitResult rateLimitResult = new RateLimitResult();
+
+        rateLimitResult.setAllowed(allowed);
+        rateLimitResult.setCurrentUsage(current);
+        rateLimitResult.setLimit(limit);
+        rateLimitResult.setRemainingRequests(remaining);
+        rateLimitResult.setRetryAfterSeconds(retryAfterSeconds);
+        rateLimitResult.setLimitType(limitType);
+        rateLimitResult.setAlgorithmUsed(STRATEGY_NAME);
+        rateLimitResult.setThrottlingLevel(throttlingLevel);
+        rateLimitResult.setThrottlingMessage(ThrottlingLevels.message(throttlingLevel, current, limit));
+
+        return rateLimitResult;
+    }
+
+    // per-tier delay, the global property is only used when the tier has none
+    private long resolveSoftDelayMs(Tier tier) {
+        Long tierDelayMs = tier.getSoftDelayMs();
+        return tierDelayMs != null && tierDelayMs > 0 ? tierDelayMs : softDelayMs;
+    }
+
+    private RateLimitResult buildSoftAllowedResult(ConsumptionProbe retryProbe, long limit) {
+        RateLimitResult rateLimitResult = new RateLimitResult();
+
+        rateLimitResult.setAllowed(true);
+        rateLimitResult.setCurrentUsage(limit - retryProbe.getRemainingTokens());
+        rateLimitResult.setLimit(limit);
+        rateLimitResult.setRemainingRequests(retryProbe.getRemainingTokens());
+        rateLimitResult.setLimitType("WINDOW");
+        rateLimitResult.setAlgorithmUsed(STRATEGY_NAME);
+        rateLimitResult.setThrottlingLevel("SOFT");
+        rateLimitResult.setThrottlingMessage("Request allowed after soft throttle delay");
+
+        return rateLimitResult;
+    }
+
+    // Soft throttle failed - return hard block
+    private RateLimitResult buildSoftRejectedResult(long current, long limit, long nanosToWait) {
+        long retryAfterSeconds = Math.max(1, Duration.ofNanos(nanosToWait).toSeconds());
+
+        RateLimitResult rateLimitResult = new RateLimitResult();
+
+        rateLimitResult.setAllowed(false);
+        rateLimitResult.setCurrentUsage(current);
+        rateLimitResult.setLimit(limit);
+        rateLimitResult.setRemainingRequests(0);
+        rateLimitResult.setRetryAfterSeconds(retryAfterSeconds);
+        rateLimitResult.setLimitType("WINDOW");
+        rateLimitResult.setAlgorithmUsed(STRATEGY_NAME);
+        rateLimitResult.setThrottlingLevel("HARD");
+        rateLimitResult.setThrottlingMessage("Rate limit exceeded even after soft throttle. Retry after "
+                + retryAfterSeconds + " seconds.");
+
+        return rateLimitResult;
+    }
+}
@@ -0,0 +1,200 @@
+package com.placideh.rateLimiter.service.usage;
+
+import com.placideh.rateLimiter.util.Constants;
+import com.placideh.rateLimiter.util.DateTimeUtil;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-Memory Usage Tracker
+ * Aggregates usage in striped counters (LongAdder) keyed by (userId, yearMonth)
+ * and flushes the deltas periodically as one batched UPSERT
+ *
+ * 1. Request path: one map lookup + LongAdder.increment, no DB access
+ * 2. Flush (usage.flush-interval-ms): sumThenReset per counter, then
+ *    INSERT ... ON CONFLICT (user_id, year_month) DO UPDATE SET counter = counter + delta
+ * 3. A failed flush puts its deltas back, so they are retried with the next one
+ *
+ * Deltas are additive, so several application instances can flush into the same rows.
+ * Usage recorded since the last flush is lost if the JVM dies (at most one interval).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "usage.tracker", havingValue = "MEMORY", matchIfMissing = true)
+public class InMemoryUsageTracker implements UsageTracker {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO monthly_usage (id, user_id, year_month, total_requests, sms_count, email_count, rate_limit_hits, last_updated) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, now()) " +
+            "ON CONFLICT (user_id, year_month) DO UPDATE SET " +
+            "total_requests = COALESCE(monthly_usage.total_requests, 0) + EXCLUDED.total_requests, " +
+            "sms_count = COALESCE(monthly_usage.sms_count, 0) + EXCLUDED.sms_count, " +
+            "email_count = COALESCE(monthly_usage.email_count, 0) + EXCLUDED.email_count, " +
+            "rate_limit_hits = COALESCE(monthly_usage.rate_limit_hits, 0) + EXCLUDED.rate_limit_hits, " +
+            "last_updated = EXCLUDED.last_updated";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ConcurrentHashMap<UsageKey, UsageCounters> counters = new ConcurrentHashMap<>();
+
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder rowsUpserted = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+
+    @Override
+    public void recordNotification(String userId, String notificationType) {
+        UsageCounters usage = countersFor(userId);
+        if (Constants.NOTIFICATION_SMS.equals(notificationType)) {
+            usage.sms.increment();
+        } else if (Constants.NOTIFICATION_EMAIL.equals(notificationType)) {
+            usage.email.increment();
+        }
+    }
+
+    @Override
+    public void recordRateLimitHit(String userId) {
+        countersFor(userId).rateLimitHits.increment();
+    }
+
+    @Override
+    public void recordRateLimitHits(String userId, long count) {
+        if (count > 0) {
+            countersFor(userId).rateLimitHits.add(count);
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${usage.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        List<UsageDelta> deltas = new ArrayList<>();
+        String currentMonth = DateTimeUtil.getCurrentYearMonth();
+
+        for (Map.Entry<UsageKey, UsageCounters> entry : counters.entrySet()) {
+            UsageDelta delta = entry.getValue().drain(entry.getKey());
+            if (delta.isEmpty()) {
+                // idle counters of a finished month are not needed anymore
+                if (!currentMonth.equals(entry.getKey().yearMonth)) {
+                    counters.remove(entry.getKey(), entry.getValue());
+                }
+                continue;
+            }
+            deltas.add(delta);
+        }
+
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, deltas, deltas.size(), (ps, delta) -> {
+                ps.setString(1, UUID.randomUUID().toString());
+                ps.setString(2, delta.key.userId);
+                ps.setString(3, delta.key.yearMonth);
+                ps.setLong(4, delta.sms + delta.email);
+                ps.setLong(5, delta.sms);
+                ps.setLong(6, delta.email);
+                ps.setInt(7, (int) delta.rateLimitHits);
+            });
+            flushes.increment();
+            rowsUpserted.add(deltas.size());
+            log.debug("Flushed usage for {} client-months", deltas.size());
+        } catch (RuntimeException e) {
+            failedFlushes.increment();
+            log.error("Usage flush failed for {} client-months, retrying next interval: {}", deltas.size(), e.getMessage());
+            deltas.forEach(delta -> counters.computeIfAbsent(delta.key, key -> new UsageCounters()).restore(delta));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("tracker", "MEMORY");
+        stats.put("trackedClientMonths", counters.size());
+        stats.put("flushes", flushes.sum());
+        stats.put("rowsUpserted", rowsUpserted.sum());
+        stats.put("failedFlushes", failedFlushes.sum());
+        return stats;
+    }
+
+    private UsageCounters countersFor(String userId) {
+        return counters.computeIfAbsent(new UsageKey(userId, DateTimeUtil.getCurrentYearMonth()), key -> new UsageCounters());
+    }
+
+    private static final class UsageKey {
+        private final String userId;
+        private final String yearMonth;
+
+        private UsageKey(String userId, String yearMonth) {
+            this.userId = userId;
+            this.yearMonth = yearMonth;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof UsageKey)) return false;
+            UsageKey other = (UsageKey) o;
+            return userId.equals(other.userId) && yearMonth.equals(other.yearMonth);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, yearMonth);
+        }
+    }
+
+    private static final class UsageCounters {
+        private final LongAdder sms = new LongAdder();
+        private final LongAdder email = new LongAdder();
+        private final LongAdder rateLimitHits = new LongAdder();
+
+        // sumThenReset swaps every cell atomically, so a concurrent increment lands in this or the next flush
+        private UsageDelta drain(UsageKey key) {
+            return new UsageDelta(key, sms.sumThenReset(), email.sumThenReset(), rateLimitHits.sumThenReset());
+        }
+
+        private void restore(UsageDelta delta) {
+            sms.add(delta.sms);
+            email.add(delta.email);
+            rateLimitHits.add(delta.rateLimitHits);
+        }
+    }
+
+    private static final class UsageDelta {
+        private final UsageKey key;
+        private final long sms;
+        private final long email;
+        private final long rateLimitHits;
+
+        private UsageDelta(UsageKey key, long sms, long email, long rateLimitHits) {
+            this.key = key;
+            this.sms = sms;
+            this.email = email;
+            this.rateLimitHits = rateLimitHits;
+        }
+
+        private boolean isEmpty() {
+            return sms == 0 && email == 0 && rateLimitHits == 0;
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.placideh.rateLimiter.service.usage;
+
+import com.placideh.rateLimiter.model.MonthlyUsage;
+import com.placideh.rateLimiter.util.Constants;
+import com.placideh.rateLimiter.util.DateTimeUtil;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Redis Usage Tracker
+ * Keeps the live monthly counters of every client in one Redis hash, shared by all nodes:
+ * usage:{userId}:{yyyy-MM} -> sms | email | total | hits
+ *
+ * 1. Request path: HINCRBY + EXPIRE + SADD in one pipelined round trip
+ * 2. usage:clients:{yyyy-MM} lists the clients with usage in that month
+ * 3. Reconciliation (usage.reconcile-interval-ms) copies the hashes into monthly_usage
+ *    with one batched UPSERT per chunk. Values are copied, not added, so every node may
+ *    reconcile without double counting - but never lowered (GREATEST): monthly_usage is the
+ *    billing record and an empty or partial hash must not overwrite it
+ * 4. The first write to a month's hash (HSETNX on a marker field) seeds it from the
+ *    monthly_usage row, so after a Redis flush or failover, or when the tracker is switched
+ *    on mid-month, Redis continues from the stored counts instead of from zero
+ * 5. UsageService reads the current month from Redis, older months from Postgres; an empty
+ *    hash or a Redis error falls back to Postgres
+ *
+ * The previous month is reconciled one last time when the month rolls over.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "usage.tracker", havingValue = "REDIS")
+public class RedisUsageTracker implements UsageTracker {
+
+    private static final String KEY_PREFIX = "usage:";
+    private static final String CLIENTS_KEY_PREFIX = "usage:clients:";
+
+    private static final String FIELD_SMS = "sms";
+    private static final String FIELD_EMAIL = "email";
+    private static final String FIELD_TOTAL = "total";
+    private static final String FIELD_HITS = "hits";
+    // set by the first writer of a hash, which then seeds it from monthly_usage
+    private static final String FIELD_SEEDED = "seeded";
+
+    // long enough for the month to be reconciled after it ended
+    private static final long KEY_TTL_SECONDS = Duration.ofDays(62).toSeconds();
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO monthly_usage (id, user_id, year_month, total_requests, sms_count, email_count, rate_limit_hits, last_updated) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, now()) " +
+            "ON CONFLICT (user_id, year_month) DO UPDATE SET " +
+            "total_requests = GREATEST(monthly_usage.total_requests, EXCLUDED.total_requests), " +
+            "sms_count = GREATEST(monthly_usage.sms_count, EXCLUDED.sms_count), " +
+            "email_count = GREATEST(monthly_usage.email_count, EXCLUDED.email_count), " +
+            "rate_limit_hits = GREATEST(monthly_usage.rate_limit_hits, EXCLUDED.rate_limit_hits), " +
+            "last_updated = EXCLUDED.last_updated";
+
+    private static final String SELECT_SQL =
+            "SELECT total_requests, sms_count, email_count, rate_limit_hits FROM monthly_usage " +
+            "WHERE user_id = ? AND year_month = ?";
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${usage.reconcile-chunk-size:500}")
+    private int chunkSize;
+
+    private volatile String lastReconciledMonth;
+
+    private final LongAdder redisWrites = new LongAdder();
+    private final LongAdder reconciliations = new LongAdder();
+    private final LongAdder rowsUpserted = new LongAdder();
+    private final LongAdder failedReconciliations = new LongAdder();
+
+    @Override
+    public void recordNotification(String userId, String notificationType) {
+        recordNotifications(userId, notificationType, 1);
+    }
+
+    @Override
+    public void recordNotifications(String userId, String notificationType, long count) {
+        String field = Constants.NOTIFICATION_SMS.equals(notificationType) ? FIELD_SMS : FIELD_EMAIL;
+        increment(userId, field, count, true);
+    }
+
+    @Override
+    public void recordRateLimitHit(String userId) {
+        increment(userId, FIELD_HITS, 1, false);
+    }
+
+    // one pipelined HINCRBY per batch instead of one round trip per rejected item
+    @Override
+    public void recordRateLimitHits(String userId, long count) {
+        if (count > 0) {
+            increment(userId, FIELD_HITS, count, false);
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${usage.reconcile-interval-ms:60000}")
+    public synchronized void flush() {
+        String currentMonth = DateTimeUtil.getCurrentYearMonth();
+        if (!currentMonth.equals(lastReconciledMonth)) {
+            // first run or month rollover - the previous month gets its final counts
+            reconcile(YearMonth.parse(currentMonth).minusMonths(1).toString());
+        }
+        reconcile(currentMonth);
+        lastReconciledMonth = currentMonth;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    @Override
+    public Optional<MonthlyUsage> findCurrentUsage(String userId) {
+        String yearMonth = DateTimeUtil.getCurrentYearMonth();
+        try {
+            Map<Object, Object> fields = redisTemplate.opsForHash().entries(usageKey(userId, yearMonth));
+            if (fields == null || fields.isEmpty()) {
+                // nothing counted in Redis (yet) - monthly_usage is the source
+                return Optional.empty();
+            }
+            return Optional.of(toMonthlyUsage(userId, yearMonth, fields));
+        } catch (RuntimeException e) {
+            log.warn("Live usage unavailable for user {}, reading monthly_usage: {}", userId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("tracker", "REDIS");
+        stats.put("redisWrites", redisWrites.sum());
+        stats.put("reconciliations", reconciliations.sum());
+        stats.put("rowsUpserted", rowsUpserted.sum());
+        stats.put("failedReconciliations", failedReconciliations.sum());
+        stats.put("lastReconciledMonth", lastReconciledMonth);
+        return stats;
+    }
+
+    private void increment(String userId, String field, long count, boolean countsAsRequest) {
+        String yearMonth = DateTimeUtil.getCurrentYearMonth();
+        String key = usageKey(userId, yearMonth);
+        String clientsKey = CLIENTS_KEY_PREFIX + yearMonth;
+
+        try {
+            List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                redis.hSetNX(key, FIELD_SEEDED, "1");
+                redis.hIncrBy(key, field, count);
+                if (countsAsRequest) {
+                    redis.hIncrBy(key, FIELD_TOTAL, count);
+                }
+                redis.expire(key, KEY_TTL_SECONDS);
+                redis.sAdd(clientsKey, userId);
+                redis.expire(clientsKey, KEY_TTL_SECONDS);
+                return null;
+            });
+            redisWrites.increment();
+            if (Boolean.TRUE.equals(replies.get(0))) {
+                seedFromDatabase(userId, yearMonth, key);
+            }
+        } catch (RuntimeException e) {
+            // usage accounting must never fail a notification
+            log.error("Failed to record usage {} for user {}: {}", field, userId, e.getMessage());
+        }
+    }
+
+    // adds the stored counts of the month once per hash, on top of what was just counted
+    private void seedFromDatabase(String userId, String yearMonth, String key) {
+        List<MonthlyUsage> stored = jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> {
+            MonthlyUsage usage = new MonthlyUsage();
+            usage.setTotalRequests(rs.getLong(1));
+            usage.setSmsCount(rs.getLong(2));
+            usage.setEmailCount(rs.getLong(3));
+            usage.setRateLimitHits(rs.getInt(4));
+            return usage;
+        }, userId, yearMonth);
+        if (stored.isEmpty()) {
+            return;
+        }
+
+        MonthlyUsage usage = stored.get(0);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            redis.hIncrBy(key, FIELD_TOTAL, usage.getTotalRequests());
+            redis.hIncrBy(key, FIELD_SMS, usage.getSmsCount());
+            redis.hIncrBy(key, FIELD_EMAIL, usage.getEmailCount());
+            redis.hIncrBy(key, FIELD_HITS, usage.getRateLimitHits());
+            return null;
+        });
+        log.info("Seeded usage of user {} for {} from monthly_usage ({} requests)",
+                userId, yearMonth, usage.getTotalRequests());
+    }
+
+    private void reconcile(String yearMonth) {
+        Set<String> userIds = redisTemplate.opsForSet().members(CLIENTS_KEY_PREFIX + yearMonth);
+        if (userIds == null || userIds.isEmpty()) {
+            return;
+        }
+
+        List<String> chunk = new ArrayList<>(chunkSize);
+        for (String userId : userIds) {
+            chunk.add(userId);
+            if (chunk.size() == chunkSize) {
+                reconcileChunk(yearMonth, chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            reconcileChunk(yearMonth, chunk);
+        }
+        reconciliations.increment();
+        log.debug("Reconciled usage of {} clients for {}", userIds.size(), yearMonth);
+    }
+
+    // one pipelined HGETALL round trip and one batched UPSERT per chunk
+    @SuppressWarnings("unchecked")
+    private void reconcileChunk(String yearMonth, List<String> userIds) {
+        try {
+            List<Object> hashes = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                pipelineHashReads(connection, yearMonth, userIds);
+                return null;
+            });
+
+            List<MonthlyUsage> rows = new ArrayList<>(userIds.size());
+            for (int i = 0; i < userIds.size(); i++) {
+                Map<Object, Object> fields = (Map<Object, Object>) hashes.get(i);
+                if (fields != null && !fields.isEmpty()) {
+                    rows.add(toMonthlyUsage(userIds.get(i), yearMonth, fields));
+                }
+            }
+
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, usage) -> {
+                ps.setString(1, UUID.randomUUID().toString());
+                ps.setString(2, usage.getUserId());
+                ps.setString(3, usage.getYearMonth());
+                ps.setLong(4, usage.getTotalRequests());
+                ps.setLong(5, usage.getSmsCount());
+                ps.setLong(6, usage.getEmailCount());
+                ps.setInt(7, usage.getRateLimitHits());
+            });
+            rowsUpserted.add(rows.size());
+        } catch (RuntimeException e) {
+            // Redis still holds the counts - the next run copies them again
+            failedReconciliations.increment();
+            log.error("Usage reconciliation failed for {} clients ({}): {}", userIds.size(), yearMonth, e.getMessage());
+        }
+    }
+
+    private void pipelineHashReads(RedisConnection connection, String yearMonth, List<String> userIds) {
+        StringRedisConnection redis = (StringRedisConnection) connection;
+        for (String userId : userIds) {
+            redis.hGetAll(usageKey(userId, yearMonth));
+        }
+    }
+
+    private MonthlyUsage toMonthlyUsage(String userId, String yearMonth, Map<Object, Object> fields) {
+        MonthlyUsage usage = new MonthlyUsage();
+        usage.setUserId(userId);
+        usage.setYearMonth(yearMonth);
+        usage.setSmsCount(longField(fields, FIELD_SMS));
+        usage.setEmailCount(longField(fields, FIELD_EMAIL));
+        usage.setTotalRequests(longField(fields, FIELD_TOTAL));
+        usage.setRateLimitHits((int) longField(fields, FIELD_HITS));
+        return usage;
+    }
+
+    private static long longField(Map<Object, Object> fields, String field) {
+        Object value = fields.get(field);
+        return value != null ? Long.parseLong(value.toString()) : 0L;
+    }
+
+    private static String usageKey(String userId, String yearMonth) {
+        return KEY_PREFIX + userId + ":" + yearMonth;
+    }
+}
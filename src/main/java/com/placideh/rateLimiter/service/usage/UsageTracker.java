@@ -0,0 +1,60 @@
+package com.placideh.rateLimiter.service.usage;
+
+import com.placideh.rateLimiter.model.MonthlyUsage;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Usage Tracker
+ * Records per-client monthly usage (the monthly_usage table) from the notification
+ * and rate limit paths. Implementations must be cheap on the request path and
+ * persist in the background.
+ *
+ * Selected with usage.tracker: MEMORY (default, InMemoryUsageTracker) or REDIS (RedisUsageTracker).
+ */
+public interface UsageTracker {
+
+    /**
+     * Counts one sent notification (SMS or EMAIL) for the current month
+     */
+    void recordNotification(String userId, String notificationType);
+
+    /**
+     * Counts several sent notifications of one type at once (batch sends)
+     */
+    default void recordNotifications(String userId, String notificationType, long count) {
+        for (long i = 0; i < count; i++) {
+            recordNotification(userId, notificationType);
+        }
+    }
+
+    /**
+     * Counts one request rejected by a rate limit for the current month
+     */
+    void recordRateLimitHit(String userId);
+
+    /**
+     * Counts several rate limited requests at once (rejected batch items)
+     */
+    default void recordRateLimitHits(String userId, long count) {
+        for (long i = 0; i < count; i++) {
+            recordRateLimitHit(userId);
+        }
+    }
+
+    /**
+     * Persists everything recorded so far
+     */
+    void flush();
+
+    /**
+     * Live usage of the current month when the tracker can serve it,
+     * empty when monthly_usage in Postgres is the source
+     */
+    default Optional<MonthlyUsage> findCurrentUsage(String userId) {
+        return Optional.empty();
+    }
+
+    Map<String, Object> getStats();
+}
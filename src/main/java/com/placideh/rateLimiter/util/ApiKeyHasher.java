@@ -0,0 +1,35 @@
+package com.placideh.rateLimiter.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * API Key Hasher
+ * Fixed-length digest of an API key: SHA-256, lower-case hex (64 characters)
+ *
+ * API keys are random and high-entropy, so a plain (unsalted) fast hash is enough:
+ * it cannot be brute-forced, and being deterministic it can be looked up by a unique index.
+ */
+public final class ApiKeyHasher {
+
+    public static final int HASH_LENGTH = 64;
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    public static String hash(String apiKey) {
+        return HEX.formatHex(sha256().digest(apiKey.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every JRE ships SHA-256
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private ApiKeyHasher() {}
+}
@@ -8,6 +8,17 @@ public class Constants {
     // Rate Limiting Algorithms
     public static final String TOKEN_BUCKET = "TOKEN_BUCKET";
     public static final String FIXED_WINDOW = "FIXED_WINDOW";
+    public static final String SLIDING_WINDOW = "SLIDING_WINDOW";
+    public static final String GCRA = "GCRA";
+
+    // system_config keys
+    public static final String CONFIG_RATE_LIMIT_ALGORITHM = "RATE_LIMIT_ALGORITHM";
+    public static final String CONFIG_SYSTEM_LIMIT_PER_SECOND = "SYSTEM_LIMIT_PER_SECOND";
+
+    // System-wide limiter modes
+    public static final String SYSTEM_MODE_SINGLE = "SINGLE";
+    public static final String SYSTEM_MODE_LEASED = "LEASED";
+    public static final String SYSTEM_MODE_SHARDED = "SHARDED";
 
 
 
@@ -0,0 +1,29 @@
+package com.placideh.rateLimiter.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers side effects on in-memory state (cache evictions, filter adds) until the
+ * surrounding transaction has committed
+ *
+ * Evicting before commit lets a concurrent cache miss reload the old row and cache
+ * it for the full TTL. Outside a transaction the action runs right away.
+ */
+public final class TransactionCallbacks {
+
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private TransactionCallbacks() {}
+}
@@ -0,0 +1,61 @@
+-- ============================================
+-- ADMIN USAGE QUERY BENCHMARK
+-- GET /admin/usage/clients at 100k clients
+-- ============================================
+-- Seeds 100,000 users with current-month usage, then times the
+-- paged join query used by UsageService.getAllClientsUsage.
+-- Run on a development database only, after seed-data.sql.
+-- Clean up with the DELETE statements at the bottom.
+-- ============================================
+
+INSERT INTO users (id, username, email, password, role, tier_id, api_key_hash, is_active, created_at, updated_at)
+SELECT 'bench_user_' || g,
+       'bench_user_' || g,
+       'bench_user_' || g || '@bench.local',
+       'x',
+       'COMPANY',
+       (ARRAY['tier_free', 'tier_basic', 'tier_professional', 'tier_enterprise'])[1 + g % 4],
+       encode(sha256(convert_to('sk_bench_' || g, 'UTF8')), 'hex'),
+       true,
+       NOW(),
+       NOW()
+FROM generate_series(1, 100000) AS g
+ON CONFLICT (id) DO NOTHING;
+
+INSERT INTO monthly_usage (id, user_id, year_month, total_requests, sms_count, email_count, rate_limit_hits, last_updated)
+SELECT 'bench_usage_' || g,
+       'bench_user_' || g,
+       to_char(NOW(), 'YYYY-MM'),
+       (g * 7) % 5000,
+       (g * 7) % 5000 / 2,
+       (g * 7) % 5000 - (g * 7) % 5000 / 2,
+       g % 13,
+       NOW()
+FROM generate_series(1, 100000) AS g
+ON CONFLICT (user_id, year_month) DO NOTHING;
+
+ANALYZE users;
+ANALYZE monthly_usage;
+
+-- page 1, sorted by percentageUsed DESC (what Hibernate generates for the default request)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT m.user_id, u.username, t.name, m.year_month, m.total_requests, m.sms_count,
+       m.email_count, m.rate_limit_hits, t.requests_per_minute, t.requests_per_month
+FROM monthly_usage m
+JOIN users u ON u.id = m.user_id
+JOIN tiers t ON t.id = u.tier_id
+WHERE m.year_month = to_char(NOW(), 'YYYY-MM')
+ORDER BY COALESCE(m.total_requests, 0) * 1.0 / t.requests_per_month DESC, m.user_id
+LIMIT 50 OFFSET 0;
+
+-- the count query of the page
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(m.id)
+FROM monthly_usage m
+JOIN users u ON u.id = m.user_id
+JOIN tiers t ON t.id = u.tier_id
+WHERE m.year_month = to_char(NOW(), 'YYYY-MM');
+
+-- cleanup
+-- DELETE FROM monthly_usage WHERE id LIKE 'bench_usage_%';
+-- DELETE FROM users WHERE id LIKE 'bench_user_%';
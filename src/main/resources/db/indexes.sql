@@ -0,0 +1,18 @@
+-- ============================================
+-- OPTIONAL INDEXES (PostgreSQL 11+)
+-- Rate Limiter Application
+-- ============================================
+-- The UNIQUE (user_id, year_month) constraint of monthly_usage already has a
+-- btree that serves the per-user lookups and the newest-first history (scanned
+-- backwards). The covering variant below also carries the counters, so the
+-- usage history query becomes an index-only scan. Run manually; CONCURRENTLY
+-- does not block writes.
+-- ============================================
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_monthly_usage_user_month_covering
+    ON monthly_usage (user_id, year_month DESC)
+    INCLUDE (total_requests, sms_count, email_count, rate_limit_hits);
+
+-- databases created by an earlier build still have this duplicate of the
+-- unique constraint's index
+-- DROP INDEX CONCURRENTLY IF EXISTS idx_monthly_usage_user_month_desc;
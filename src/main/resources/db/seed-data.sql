@@ -107,6 +107,28 @@ VALUES
                             is_active = EXCLUDED.is_active,
                             updated_at = NOW();
 
+-- API key lookups go through api_key_hash (SHA-256 hex); only the hash is kept, so the
+-- plaintext keys above are documentation for local testing and are cleared right away
+-- (the app backfills and clears the same way for rows this script does not cover)
+UPDATE users SET api_key_hash = encode(sha256(convert_to(api_key, 'UTF8')), 'hex')
+WHERE api_key IS NOT NULL
+  AND api_key_hash IS DISTINCT FROM encode(sha256(convert_to(api_key, 'UTF8')), 'hex');
+
+-- databases created before the plaintext column became optional
+ALTER TABLE users ALTER COLUMN api_key DROP NOT NULL;
+
+UPDATE users SET api_key = NULL
+WHERE api_key IS NOT NULL AND api_key_hash IS NOT NULL;
+
+-- ============================================
+-- SYSTEM CONFIG DATA
+-- ============================================
+
+INSERT INTO system_config (id, config_key, config_value, description, updated_at, updated_by)
+VALUES
+    ('config_rate_limit_algorithm', 'RATE_LIMIT_ALGORITHM', 'TOKEN_BUCKET', 'Active rate limiting algorithm (TOKEN_BUCKET, FIXED_WINDOW, SLIDING_WINDOW or GCRA)', NOW(), 'system')
+    ON CONFLICT (config_key) DO NOTHING;
+
 -- ============================================
 -- VERIFICATION QUERIES
 -- ============================================
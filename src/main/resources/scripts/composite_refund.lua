@@ -0,0 +1,28 @@
+-- ============================================
+-- COMPOSITE TOKEN BUCKET REFUND
+-- Returns permits to buckets written by composite_token_bucket.lua
+-- ============================================
+-- KEYS[i]          bucket key
+-- ARGV[i]          capacity of bucket i
+-- ARGV[n+1]        permits to return
+--
+-- Tokens are capped at the capacity; a bucket that already expired is full
+-- and is left alone.
+--
+-- Returns the number of buckets refunded
+-- ============================================
+
+local bucketCount = #KEYS
+local permits = tonumber(ARGV[bucketCount + 1])
+local refunded = 0
+
+for i = 1, bucketCount do
+    local tokens = tonumber(redis.call('HGET', KEYS[i], 'tokens'))
+    if tokens ~= nil then
+        local capacity = tonumber(ARGV[i])
+        redis.call('HSET', KEYS[i], 'tokens', tostring(math.min(capacity, tokens + permits)))
+        refunded = refunded + 1
+    end
+end
+
+return refunded
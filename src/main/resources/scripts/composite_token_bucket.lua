@@ -0,0 +1,86 @@
+-- ============================================
+-- COMPOSITE TOKEN BUCKET
+-- Checks several token buckets atomically in one round trip
+-- ============================================
+-- KEYS[i]          bucket key (e.g. system, window, monthly)
+-- ARGV[2i-1]       capacity of bucket i
+-- ARGV[2i]         refill period of bucket i in milliseconds
+-- ARGV[2n+1]       requested permits
+--
+-- Every bucket is refilled and checked first; tokens are only taken when
+-- the grant is non-zero, so a rejected request never burns capacity in
+-- any of the buckets (all-or-nothing for a single permit).
+--
+-- Returns { granted, blockingIndex, waitMs, remaining_1, ..., remaining_n }
+--   granted        permits granted: min(requested, tokens available in every bucket)
+--   blockingIndex  1-based index of the tightest bucket (the last one that lowered
+--                 the grant), 0 if none
+--   waitMs         milliseconds until the blocking bucket refills one permit
+-- ============================================
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local bucketCount = #KEYS
+local requested = tonumber(ARGV[bucketCount * 2 + 1])
+
+local capacities = {}
+local periods = {}
+local tokens = {}
+
+local granted = requested
+local blockingIndex = 0
+
+for i = 1, bucketCount do
+    local capacity = tonumber(ARGV[i * 2 - 1])
+    local period = tonumber(ARGV[i * 2])
+    local state = redis.call('HMGET', KEYS[i], 'tokens', 'ts')
+
+    local available = tonumber(state[1])
+    local lastRefill = tonumber(state[2])
+    if available == nil or lastRefill == nil then
+        available = capacity
+        lastRefill = now
+    end
+
+    local elapsed = math.max(0, now - lastRefill)
+    available = math.min(capacity, available + (elapsed * capacity / period))
+
+    capacities[i] = capacity
+    periods[i] = period
+    tokens[i] = available
+
+    local whole = math.floor(available)
+    if whole < granted then
+        granted = whole
+        blockingIndex = i
+    end
+end
+
+if granted < 0 then
+    granted = 0
+end
+
+if granted > 0 then
+    for i = 1, bucketCount do
+        tokens[i] = tokens[i] - granted
+        redis.call('HSET', KEYS[i], 'tokens', tostring(tokens[i]), 'ts', tostring(now))
+        -- an untouched bucket is full again after one period, so the state can expire
+        redis.call('PEXPIRE', KEYS[i], periods[i])
+    end
+end
+
+local waitMs = 0
+if blockingIndex > 0 then
+    local missing = 1 - tokens[blockingIndex]
+    if missing > 0 then
+        waitMs = math.ceil(missing * periods[blockingIndex] / capacities[blockingIndex])
+    end
+end
+
+local result = { granted, blockingIndex, waitMs }
+for i = 1, bucketCount do
+    result[#result + 1] = math.floor(tokens[i])
+end
+
+return result
@@ -0,0 +1,54 @@
+-- ============================================
+-- FIXED WINDOW COUNTER
+-- One counter per window key; the key expires with its window
+-- ============================================
+-- KEYS[i]          counter key of window i (the key already contains the window id)
+-- ARGV[2i-1]       limit of window i
+-- ARGV[2i]         milliseconds until window i ends (expiry of a new key)
+-- ARGV[2n+1]       requested permits
+--
+-- Every window is read first; the grant is the smallest room left in any
+-- window, and only the granted permits are added (INCRBY), so a rejected
+-- request is not counted anywhere.
+--
+-- Returns { granted, blockingIndex, count_1, ..., count_n }
+--   granted        permits granted: min(requested, room left in every window)
+--   blockingIndex  1-based index of the tightest window (the last one that lowered
+--                 the grant), 0 if none
+--   count_i        counter of window i after the grant
+-- ============================================
+
+local windowCount = #KEYS
+local requested = tonumber(ARGV[windowCount * 2 + 1])
+
+local counts = {}
+local granted = requested
+local blockingIndex = 0
+
+for i = 1, windowCount do
+    local limit = tonumber(ARGV[i * 2 - 1])
+    local count = tonumber(redis.call('GET', KEYS[i]) or '0')
+    counts[i] = count
+
+    local room = math.max(0, limit - count)
+    if room < granted then
+        granted = room
+        blockingIndex = i
+    end
+end
+
+if granted > 0 then
+    for i = 1, windowCount do
+        counts[i] = redis.call('INCRBY', KEYS[i], granted)
+        if counts[i] == granted then
+            redis.call('PEXPIRE', KEYS[i], tonumber(ARGV[i * 2]))
+        end
+    end
+end
+
+local result = { granted, blockingIndex }
+for i = 1, windowCount do
+    result[#result + 1] = counts[i]
+end
+
+return result
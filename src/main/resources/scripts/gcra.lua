@@ -0,0 +1,83 @@
+-- ============================================
+-- GCRA (Generic Cell Rate Algorithm)
+-- One theoretical arrival time (TAT) per key, no counters or refill state
+-- ============================================
+-- KEYS[i]          TAT key of limit i (value: TAT in microseconds)
+-- ARGV[2i-1]       limit i (requests per period, also the burst size)
+-- ARGV[2i]         period of limit i in microseconds
+-- ARGV[2n+1]       requested permits
+--
+-- All KEYS must share a hash tag (gcra:{<id>}:...) to run on Redis Cluster.
+--
+-- emission interval T = period / limit
+-- k permits are allowed when  max(TAT, now) + k * T - period <= now
+-- and then store              TAT = max(TAT, now) + k * T
+--
+-- Every limit is checked before any TAT is written; the grant is the largest k
+-- allowed by every limit, so a rejected request does not consume capacity.
+-- A key expires once its TAT is in the past, i.e. when the client has its full
+-- burst again.
+--
+-- Returns { granted, blockingIndex, retryAfterMicros, remaining_1, ..., remaining_n }
+--   granted           permits granted: min(requested, permits allowed by every limit)
+--   blockingIndex     1-based index of the tightest limit (the last one that lowered
+--                 the grant), 0 if none
+--   retryAfterMicros  time until the blocking limit allows one more permit
+-- ============================================
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+
+local limitCount = #KEYS
+local requested = tonumber(ARGV[limitCount * 2 + 1])
+
+local tats = {}
+local intervals = {}
+local periods = {}
+local granted = requested
+local blockingIndex = 0
+
+for i = 1, limitCount do
+    local limit = tonumber(ARGV[i * 2 - 1])
+    local period = tonumber(ARGV[i * 2])
+    local interval = period / limit
+
+    local tat = tonumber(redis.call('GET', KEYS[i]) or '0')
+    if tat < now then
+        tat = now
+    end
+
+    tats[i] = tat
+    intervals[i] = interval
+    periods[i] = period
+
+    local allowed = math.max(0, math.floor((now + period - tat) / interval))
+    if allowed < granted then
+        granted = allowed
+        blockingIndex = i
+    end
+end
+
+local retryAfter = 0
+if blockingIndex > 0 then
+    local i = blockingIndex
+    retryAfter = math.max(0, math.ceil(tats[i] + (granted + 1) * intervals[i] - periods[i] - now))
+end
+
+local result = { granted, blockingIndex, retryAfter }
+
+for i = 1, limitCount do
+    local tat = tats[i] + granted * intervals[i]
+    if granted > 0 then
+        local ttlMs = math.ceil((tat - now) / 1000)
+        redis.call('SET', KEYS[i], string.format('%d', math.ceil(tat)), 'PX', math.max(1, ttlMs))
+    end
+
+    local remaining = math.floor((periods[i] - (tat - now)) / intervals[i])
+    if remaining < 0 then
+        remaining = 0
+    end
+    result[#result + 1] = remaining
+end
+
+return result
@@ -0,0 +1,39 @@
+-- ============================================
+-- GCRA REFUND
+-- Moves theoretical arrival times back by one emission interval per permit
+-- ============================================
+-- KEYS[i]          TAT key of limit i (microseconds)
+-- ARGV[2i-1]       limit i
+-- ARGV[2i]         period of limit i in microseconds
+-- ARGV[2n+1]       permits to return
+--
+-- All KEYS must share a hash tag (gcra:{<id>}:...) to run on Redis Cluster.
+--
+-- A TAT that falls into the past means a full burst: the key is deleted.
+--
+-- Returns the number of keys refunded
+-- ============================================
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+
+local limitCount = #KEYS
+local permits = tonumber(ARGV[limitCount * 2 + 1])
+local refunded = 0
+
+for i = 1, limitCount do
+    local tat = tonumber(redis.call('GET', KEYS[i]))
+    if tat ~= nil then
+        local interval = tonumber(ARGV[i * 2]) / tonumber(ARGV[i * 2 - 1])
+        local newTat = tat - interval * permits
+        if newTat <= now then
+            redis.call('DEL', KEYS[i])
+        else
+            local ttlMs = math.ceil((newTat - now) / 1000)
+            redis.call('SET', KEYS[i], string.format('%d', math.ceil(newTat)), 'PX', math.max(1, ttlMs))
+        end
+        refunded = refunded + 1
+    end
+end
+
+return refunded
@@ -0,0 +1,25 @@
+-- ============================================
+-- REFUND COUNTERS
+-- Gives permits back to window counters (fixed / sliding window strategies)
+-- ============================================
+-- KEYS[i]          counter key
+-- ARGV[1]          permits to return
+--
+-- A counter is only decremented while it exists and stays >= 0, so a refund
+-- never creates a key or gives back more than was counted.
+--
+-- Returns the number of counters decremented
+-- ============================================
+
+local permits = tonumber(ARGV[1])
+local refunded = 0
+
+for i = 1, #KEYS do
+    local count = tonumber(redis.call('GET', KEYS[i]) or '0')
+    if count > 0 then
+        redis.call('DECRBY', KEYS[i], math.min(count, permits))
+        refunded = refunded + 1
+    end
+end
+
+return refunded
@@ -0,0 +1,68 @@
+-- ============================================
+-- SLIDING WINDOW COUNTER
+-- Approximates a rolling window from the current and previous fixed window counters
+-- ============================================
+-- KEYS[2i-1]       counter of the current window of limit i
+-- KEYS[2i]         counter of the previous window of limit i
+-- ARGV[3i-2]       limit i
+-- ARGV[3i-1]       weight of the previous window (share of it still inside the rolling window, 0..1)
+-- ARGV[3i]         expiry of a new current counter in milliseconds
+-- ARGV[3n+1]       requested permits
+--
+-- estimate = previous * weight + current
+--
+-- Every limit is checked before any counter is incremented; the grant is the
+-- smallest room left under any limit, so a rejected request is not counted anywhere.
+--
+-- Returns { granted, blockingIndex, estimate_1, previous_1, ..., estimate_n, previous_n }
+--   granted        permits granted: min(requested, room left under every limit)
+--   blockingIndex  1-based index of the tightest limit (the last one that lowered
+--                 the grant), 0 if none
+--   estimate_i     rolling count after the grant (floored)
+-- ============================================
+
+local limitCount = #KEYS / 2
+local requested = tonumber(ARGV[limitCount * 3 + 1])
+
+local estimates = {}
+local previousCounts = {}
+local granted = requested
+local blockingIndex = 0
+
+for i = 1, limitCount do
+    local limit = tonumber(ARGV[i * 3 - 2])
+    local weight = tonumber(ARGV[i * 3 - 1])
+
+    local current = tonumber(redis.call('GET', KEYS[i * 2 - 1]) or '0')
+    local previous = 0
+    if weight > 0 then
+        previous = tonumber(redis.call('GET', KEYS[i * 2]) or '0')
+    end
+
+    estimates[i] = previous * weight + current
+    previousCounts[i] = previous
+
+    local room = math.max(0, math.floor(limit - estimates[i]))
+    if room < granted then
+        granted = room
+        blockingIndex = i
+    end
+end
+
+if granted > 0 then
+    for i = 1, limitCount do
+        local count = redis.call('INCRBY', KEYS[i * 2 - 1], granted)
+        if count == granted then
+            redis.call('PEXPIRE', KEYS[i * 2 - 1], tonumber(ARGV[i * 3]))
+        end
+        estimates[i] = estimates[i] + granted
+    end
+end
+
+local result = { granted, blockingIndex }
+for i = 1, limitCount do
+    result[#result + 1] = math.floor(estimates[i])
+    result[#result + 1] = previousCounts[i]
+end
+
+return result
@@ -0,0 +1,124 @@
+package com.placideh.rateLimiter.service.rateLimit;
+
+import com.placideh.rateLimiter.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Single-request checks and refunds of the Lua strategies, on a real Redis
+ *
+ * 1. Each limit admits exactly its capacity and names itself in the rejection
+ * 2. A refund gives admitted permits back, but never more than the limit
+ * 3. Clients never share state
+ */
+class LuaStrategyTest {
+
+    private final List<String> clientIds = new ArrayList<>();
+    private RateLimitStrategy strategy;
+
+    @AfterEach
+    void cleanUp() {
+        if (strategy != null) {
+            for (String clientId : clientIds) {
+                RedisTestSupport.redisTemplate().delete(strategy.stateKeys(clientId));
+            }
+        }
+    }
+
+    static List<String> strategies() {
+        return RedisTestSupport.luaStrategies();
+    }
+
+    @ParameterizedTest
+    @MethodSource("strategies")
+    void admitsTheWindowLimitThenRejectsWithRetryAfter(String strategyName) {
+        strategy = RedisTestSupport.createStrategy(strategyName);
+        User client = newClient(3, 100);
+
+        assertAdmitted(client, 3);
+        RateLimitResult rejected = strategy.checkRateLimit(client);
+
+        assertFalse(rejected.isAllowed());
+        assertEquals("WINDOW", rejected.getLimitType());
+        long retryAfter = rejected.getRetryAfterSeconds();
+        assertTrue(retryAfter >= 1 && retryAfter <= 60, "retryAfter " + retryAfter + "s outside the window");
+    }
+
+    @ParameterizedTest
+    @MethodSource("strategies")
+    void admitsTheMonthlyLimitThenRejects(String strategyName) {
+        strategy = RedisTestSupport.createStrategy(strategyName);
+        User client = newClient(10, 2);
+
+        assertAdmitted(client, 2);
+        RateLimitResult rejected = strategy.checkRateLimit(client);
+
+        assertFalse(rejected.isAllowed());
+        assertEquals("MONTHLY", rejected.getLimitType());
+    }
+
+    @ParameterizedTest
+    @MethodSource("strategies")
+    void refundAdmitsAgain(String strategyName) {
+        strategy = RedisTestSupport.createStrategy(strategyName);
+        User client = newClient(2, 100);
+
+        assertAdmitted(client, 2);
+        assertFalse(strategy.checkRateLimit(client).isAllowed());
+
+        strategy.refund(client, 1);
+
+        assertAdmitted(client, 1);
+        assertFalse(strategy.checkRateLimit(client).isAllowed());
+    }
+
+    @ParameterizedTest
+    @MethodSource("strategies")
+    void refundNeverRaisesTheLimit(String strategyName) {
+        strategy = RedisTestSupport.createStrategy(strategyName);
+        User client = newClient(2, 100);
+
+        strategy.refund(client, 5);
+        assertAdmitted(client, 1);
+        strategy.refund(client, 5);
+
+        assertAdmitted(client, 2);
+        assertFalse(strategy.checkRateLimit(client).isAllowed());
+    }
+
+    @ParameterizedTest
+    @MethodSource("strategies")
+    void clientsDoNotShareLimits(String strategyName) {
+        strategy = RedisTestSupport.createStrategy(strategyName);
+        User first = newClient(1, 100);
+        User second = newClient(1, 100);
+
+        assertAdmitted(first, 1);
+        assertFalse(strategy.checkRateLimit(first).isAllowed());
+
+        assertAdmitted(second, 1);
+    }
+
+    private void assertAdmitted(User client, int requests) {
+        for (int i = 0; i < requests; i++) {
+            RateLimitResult result = strategy.checkRateLimit(client);
+            assertTrue(result.isAllowed(), "request " + (i + 1) + " of " + requests + " rejected: "
+                    + result.getLimitType());
+        }
+    }
+
+    private User newClient(int requestsPerMinute, long requestsPerMonth) {
+        String clientId = "test-" + UUID.randomUUID();
+        clientIds.add(clientId);
+        return RedisTestSupport.client(clientId, requestsPerMinute, requestsPerMonth);
+    }
+}
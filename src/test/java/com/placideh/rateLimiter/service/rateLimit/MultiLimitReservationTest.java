@@ -0,0 +1,68 @@
+package com.placideh.rateLimiter.service.rateLimit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Multi-permit reservations against the Lua strategies, checked on a real Redis
+ *
+ * 1. The rejection reports the tightest limit, not the first one that lowered the grant
+ * 2. Window rejections carry a retry-after, monthly rejections do not
+ *
+ * Redis comes from RedisTestSupport (embedded unless spring.data.redis.host is set).
+ */
+class MultiLimitReservationTest {
+
+    private String clientId;
+    private RateLimitStrategy strategy;
+
+    @BeforeEach
+    void newClient() {
+        clientId = "test-" + UUID.randomUUID();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        if (strategy != null) {
+            RedisTestSupport.redisTemplate().delete(strategy.stateKeys(clientId));
+        }
+    }
+
+    static List<String> strategies() {
+        return RedisTestSupport.luaStrategies();
+    }
+
+    // the window lowers the grant first (5 -> 4), the monthly limit lowers it further (4 -> 3)
+    @ParameterizedTest
+    @MethodSource("strategies")
+    void reportsMonthlyWhenItIsTighterThanTheWindow(String strategyName) {
+        strategy = RedisTestSupport.createStrategy(strategyName);
+
+        BulkRateLimitResult result = strategy.reserve(RedisTestSupport.client(clientId, 4, 3), 5);
+
+        assertEquals(3, result.getGranted());
+        assertEquals("MONTHLY", result.getRejected().getLimitType());
+        assertEquals(0, result.getRejected().getRetryAfterSeconds());
+    }
+
+    @ParameterizedTest
+    @MethodSource("strategies")
+    void reportsWindowWhenItIsTighterThanMonthly(String strategyName) {
+        strategy = RedisTestSupport.createStrategy(strategyName);
+
+        BulkRateLimitResult result = strategy.reserve(RedisTestSupport.client(clientId, 2, 100), 5);
+
+        assertEquals(2, result.getGranted());
+        assertEquals("WINDOW", result.getRejected().getLimitType());
+        long retryAfter = result.getRejected().getRetryAfterSeconds();
+        assertTrue(retryAfter >= 1 && retryAfter <= 60, "retryAfter " + retryAfter + "s outside the window");
+    }
+}
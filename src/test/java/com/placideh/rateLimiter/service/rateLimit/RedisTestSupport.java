@@ -0,0 +1,142 @@
+package com.placideh.rateLimiter.service.rateLimit;
+
+import com.placideh.rateLimiter.model.Tier;
+import com.placideh.rateLimiter.model.User;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.mockito.Mockito;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.List;
+
+/**
+ * Redis for the Lua strategy tests
+ *
+ * 1. spring.data.redis.host/port set: that Redis is used as is
+ * 2. otherwise an embedded redis-server is started once per JVM on a free port
+ * 3. no Redis at all fails the test when the CI environment variable is set,
+ *    and skips it elsewhere (e.g. a platform without an embedded binary)
+ */
+final class RedisTestSupport {
+
+    private static StringRedisTemplate redisTemplate;
+    private static String unavailable;
+
+    private RedisTestSupport() {
+    }
+
+    static synchronized StringRedisTemplate redisTemplate() {
+        if (redisTemplate == null && unavailable == null) {
+            connect();
+        }
+        if (unavailable != null) {
+            if (System.getenv("CI") != null) {
+                Assertions.fail(unavailable);
+            }
+            Assumptions.abort(unavailable);
+        }
+        return redisTemplate;
+    }
+
+    static List<String> luaStrategies() {
+        return List.of(CompositeTokenBucketStrategy.STRATEGY_NAME, FixedWindowStrategy.STRATEGY_NAME,
+                SlidingWindowStrategy.STRATEGY_NAME, GcraStrategy.STRATEGY_NAME);
+    }
+
+    static RateLimitStrategy createStrategy(String strategyName) {
+        RateLimitStrategy created = switch (strategyName) {
+            case CompositeTokenBucketStrategy.STRATEGY_NAME -> {
+                CompositeTokenBucketStrategy composite = new CompositeTokenBucketStrategy();
+                // systemWideEnabled stays false, the registry is only asked for the (unused) system limit
+                ReflectionTestUtils.setField(composite, "configurationRegistry",
+                        Mockito.mock(BucketConfigurationRegistry.class));
+                composite.init();
+                yield composite;
+            }
+            case FixedWindowStrategy.STRATEGY_NAME -> {
+                FixedWindowStrategy fixedWindow = new FixedWindowStrategy();
+                fixedWindow.init();
+                yield fixedWindow;
+            }
+            case SlidingWindowStrategy.STRATEGY_NAME -> {
+                SlidingWindowStrategy slidingWindow = new SlidingWindowStrategy();
+                slidingWindow.init();
+                yield slidingWindow;
+            }
+            case GcraStrategy.STRATEGY_NAME -> {
+                GcraStrategy gcra = new GcraStrategy();
+                gcra.init();
+                yield gcra;
+            }
+            default -> throw new IllegalArgumentException(strategyName);
+        };
+        ReflectionTestUtils.setField(created, "redisTemplate", redisTemplate());
+        return created;
+    }
+
+    static User client(String clientId, int requestsPerMinute, long requestsPerMonth) {
+        Tier tier = new Tier();
+        tier.setName("TEST");
+        tier.setRequestsPerMinute(requestsPerMinute);
+        tier.setRequestsPerMonth(requestsPerMonth);
+
+        User user = new User();
+        user.setId(clientId);
+        user.setTier(tier);
+        return user;
+    }
+
+    private static void connect() {
+        String host = System.getProperty("spring.data.redis.host");
+        int port;
+        if (host == null) {
+            host = "localhost";
+            try {
+                port = startEmbedded();
+            } catch (IOException | RuntimeException e) {
+                unavailable = "Embedded Redis failed to start: " + e.getMessage();
+                return;
+            }
+        } else {
+            port = Integer.getInteger("spring.data.redis.port", 6379);
+        }
+
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(host, port);
+        connectionFactory.afterPropertiesSet();
+        StringRedisTemplate template = new StringRedisTemplate(connectionFactory);
+        try {
+            if ("PONG".equals(template.execute((RedisCallback<String>) connection -> connection.ping()))) {
+                redisTemplate = template;
+                Runtime.getRuntime().addShutdownHook(new Thread(connectionFactory::destroy));
+                return;
+            }
+        } catch (RuntimeException e) {
+            // reported below
+        }
+        connectionFactory.destroy();
+        unavailable = "Redis not reachable on " + host + ":" + port;
+    }
+
+    private static int startEmbedded() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        RedisServer server = new RedisServer(port);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.stop();
+            } catch (IOException e) {
+                // JVM is exiting
+            }
+        }));
+        return port;
+    }
+}
@@ -0,0 +1,95 @@
+package com.placideh.rateLimiter.service.rateLimit;
+
+import com.placideh.rateLimiter.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reproducible version of /admin/metrics/strategies
+ * Puts the same load on every Lua strategy and reports, through RateLimitStrategyMetrics,
+ * the Redis bytes held per client (MEMORY USAGE) and the Redis calls per check
+ *
+ * 1. CLIENTS clients, REQUESTS_PER_CLIENT admitted checks each, under every strategy
+ * 2. Bytes per client are averaged over all clients and printed as a table
+ * 3. GCRA, with one timestamp per limit, must hold the least
+ */
+class StrategyMemoryComparisonTest {
+
+    private static final int CLIENTS = 500;
+    private static final int REQUESTS_PER_CLIENT = 3;
+
+    private final List<String> clientIds = new ArrayList<>();
+    private final List<RateLimitStrategy> strategies = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        for (RateLimitStrategy strategy : strategies) {
+            for (String clientId : clientIds) {
+                RedisTestSupport.redisTemplate().delete(strategy.stateKeys(clientId));
+            }
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void comparesBytesPerClientUnderTheSameLoad() {
+        for (String strategyName : RedisTestSupport.luaStrategies()) {
+            strategies.add(RedisTestSupport.createStrategy(strategyName));
+        }
+        RateLimitStrategyMetrics metrics = new RateLimitStrategyMetrics();
+        ReflectionTestUtils.setField(metrics, "strategies", strategies);
+        ReflectionTestUtils.setField(metrics, "redisTemplate", RedisTestSupport.redisTemplate());
+
+        for (int i = 0; i < CLIENTS; i++) {
+            String clientId = "test-" + UUID.randomUUID();
+            clientIds.add(clientId);
+            User client = RedisTestSupport.client(clientId, 10, 1_000);
+            for (RateLimitStrategy strategy : strategies) {
+                for (int request = 0; request < REQUESTS_PER_CLIENT; request++) {
+                    assertTrue(strategy.checkRateLimit(client).isAllowed());
+                }
+            }
+        }
+
+        Map<String, Long> totalBytes = new LinkedHashMap<>();
+        Map<String, Object> lastComparison = Map.of();
+        for (String clientId : clientIds) {
+            lastComparison = metrics.compare(clientId);
+            for (RateLimitStrategy strategy : strategies) {
+                Map<String, Object> entry = (Map<String, Object>) lastComparison.get(strategy.getStrategyName());
+                long bytes = (Long) entry.get("bytesPerClient");
+                assertTrue(bytes > 0, strategy.getStrategyName() + " holds no state for " + clientId);
+                totalBytes.merge(strategy.getStrategyName(), bytes, Long::sum);
+            }
+        }
+
+        System.out.printf("%n%-24s %14s %18s%n", "strategy", "bytes/client", "redis calls/check");
+        for (RateLimitStrategy strategy : strategies) {
+            Map<String, Object> entry = (Map<String, Object>) lastComparison.get(strategy.getStrategyName());
+            double callsPerCheck = (Double) entry.get("redisCallsPerCheck");
+            System.out.printf("%-24s %14d %18.2f%n", strategy.getStrategyName(),
+                    totalBytes.get(strategy.getStrategyName()) / CLIENTS, callsPerCheck);
+
+            // every Lua strategy checks all of its limits in one script call
+            assertEquals(1.0, callsPerCheck, 0.0);
+        }
+
+        // one timestamp per limit is the smallest state - counters carry their window in the key name
+        long gcraBytes = totalBytes.get(GcraStrategy.STRATEGY_NAME);
+        for (Map.Entry<String, Long> other : totalBytes.entrySet()) {
+            if (!other.getKey().equals(GcraStrategy.STRATEGY_NAME)) {
+                assertTrue(gcraBytes < other.getValue(), "GCRA holds more than " + other.getKey());
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.placideh.rateLimiter.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    private static final int INSERTIONS = 50_000;
+    private static final int PROBES = 500_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Test
+    void hasNoFalseNegatives() {
+        BloomFilter filter = BloomFilter.create(INSERTIONS, FALSE_POSITIVE_RATE);
+
+        SplittableRandom random = new SplittableRandom(42);
+        long[][] keys = new long[INSERTIONS][];
+        for (int i = 0; i < INSERTIONS; i++) {
+            // hash2 is odd, as ApiKeyBloomFilter derives it
+            keys[i] = new long[]{random.nextLong(), random.nextLong() | 1};
+            filter.put(keys[i][0], keys[i][1]);
+        }
+
+        for (long[] key : keys) {
+            assertTrue(filter.mightContain(key[0], key[1]));
+        }
+        assertEquals(INSERTIONS, filter.getInsertions());
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheConfiguredRate() {
+        BloomFilter filter = BloomFilter.create(INSERTIONS, FALSE_POSITIVE_RATE);
+
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put(random.nextLong(), random.nextLong() | 1);
+        }
+
+        // fresh random hashes were never put - every hit is a false positive
+        int falsePositives = 0;
+        for (int i = 0; i < PROBES; i++) {
+            if (filter.mightContain(random.nextLong(), random.nextLong() | 1)) {
+                falsePositives++;
+            }
+        }
+
+        double observed = (double) falsePositives / PROBES;
+        assertTrue(observed > FALSE_POSITIVE_RATE / 2 && observed < FALSE_POSITIVE_RATE * 1.5,
+                "observed false positive rate " + observed);
+        assertEquals(FALSE_POSITIVE_RATE, filter.expectedFalsePositiveRate(), FALSE_POSITIVE_RATE * 0.25);
+    }
+
+    @Test
+    void rejectsInvalidSizing() {
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(0, FALSE_POSITIVE_RATE));
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(INSERTIONS, 0));
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(INSERTIONS, 1));
+    }
+}